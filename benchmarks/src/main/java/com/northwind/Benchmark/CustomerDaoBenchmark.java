@@ -0,0 +1,76 @@
+package com.northwind.Benchmark;
+
+import com.northwind.Data.CustomerDao;
+import com.northwind.Model.Customer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerDaoBenchmark {
+
+    // Number of rows in the Customers table
+    @Param({"1000"})
+    public int scale;
+
+    private NorthwindDatabase database;
+    private CustomerDao customerDao;
+    private final AtomicInteger added = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = new NorthwindDatabase(scale, 0, 0);
+        customerDao = new CustomerDao(database.getDataSource());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        database.close();
+    }
+
+    @Benchmark
+    public Customer find() {
+        return customerDao.find(NorthwindDatabase.customerId(ThreadLocalRandom.current().nextInt(scale)));
+    }
+
+    @Benchmark
+    public List<Customer> getAll() {
+        return customerDao.getAll();
+    }
+
+    @Benchmark
+    public Customer add() {
+        return customerDao.add(newCustomer("N" + Integer.toString(added.incrementAndGet(), 36).toUpperCase()));
+    }
+
+    @Benchmark
+    public void update() {
+        customerDao.update(newCustomer(NorthwindDatabase.customerId(ThreadLocalRandom.current().nextInt(scale))));
+    }
+
+    static Customer newCustomer(String customerId) {
+        return new Customer(customerId, "Benchmark Company", "Jane Doe", "Owner", "1 Benchmark Way",
+                "London", null, "12345", "UK", "(171) 555-0000", null);
+    }
+}
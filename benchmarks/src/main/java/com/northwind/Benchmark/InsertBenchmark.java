@@ -0,0 +1,98 @@
+package com.northwind.Benchmark;
+
+import com.northwind.Data.CustomerDao;
+import com.northwind.Data.ShipperDao;
+import com.northwind.Model.Customer;
+import com.northwind.Model.Shipper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// add() in a loop against addAll() for the same rows.
+// Scores are per inserted row (OperationsPerInvocation), so the two paths compare directly.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertBenchmark {
+    private static final int ROWS = 500;
+
+    private NorthwindDatabase database;
+    private CustomerDao customerDao;
+    private ShipperDao shipperDao;
+    private final AtomicInteger added = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = new NorthwindDatabase(0, 0, 0);
+        customerDao = new CustomerDao(database.getDataSource());
+        shipperDao = new ShipperDao(database.getDataSource());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        database.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void customersOneByOne() {
+        for (Customer customer : newCustomers()) {
+            customerDao.add(customer);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int customersBatched() {
+        return customerDao.addAll(newCustomers());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void shippersOneByOne() {
+        for (Shipper shipper : newShippers()) {
+            shipperDao.add(shipper);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int shippersBatched() {
+        return shipperDao.addAll(newShippers());
+    }
+
+    private List<Customer> newCustomers() {
+        List<Customer> customers = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            customers.add(CustomerDaoBenchmark.newCustomer("N" + Integer.toString(added.incrementAndGet(), 36).toUpperCase()));
+        }
+        return customers;
+    }
+
+    private static List<Shipper> newShippers() {
+        List<Shipper> shippers = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            shippers.add(new Shipper(0, "Benchmark Express", "(503) 555-0000"));
+        }
+        return shippers;
+    }
+}
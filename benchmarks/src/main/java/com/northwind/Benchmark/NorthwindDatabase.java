@@ -0,0 +1,194 @@
+package com.northwind.Benchmark;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// An in-memory H2 database in MySQL mode with Northwind-shaped Customers, Products and Shippers.
+// Every instance gets its own database, so benchmark trials never see each other's rows.
+// The data is generated (same seed every time) at whatever scale the benchmark asks for.
+public class NorthwindDatabase implements AutoCloseable {
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private static final String[] COUNTRIES = {"Germany", "Mexico", "UK", "Sweden", "France", "Spain", "Canada",
+            "Argentina", "Switzerland", "Brazil", "Austria", "Italy", "Portugal", "USA", "Venezuela", "Ireland",
+            "Belgium", "Norway", "Denmark", "Finland", "Poland"};
+    private static final String[] CITIES = {"Berlin", "México D.F.", "London", "Luleå", "Mannheim", "Strasbourg",
+            "Madrid", "Marseille", "Tsawassen", "Buenos Aires", "Bern", "São Paulo", "Graz", "Bergamo", "Lisboa"};
+    private static final String[] TITLES = {"Sales Representative", "Owner", "Order Administrator",
+            "Marketing Manager", "Accounting Manager", "Sales Agent", "Sales Associate", "Sales Manager"};
+    private static final String[] QUANTITIES = {"10 boxes x 20 bags", "24 - 12 oz bottles", "12 - 550 ml bottles",
+            "48 - 6 oz jars", "36 boxes", "12 - 200 ml jars", "1 kg pkg.", "10 - 500 g pkgs."};
+
+    private final BasicDataSource dataSource;
+    private final int customers;
+    private final int products;
+    private final int shippers;
+
+    public NorthwindDatabase(int customers, int products, int shippers) throws SQLException {
+        this.customers = customers;
+        this.products = products;
+        this.shippers = shippers;
+
+        // The DAOs use plain MySQL SQL, and ProductDao.getAll() names the northwind schema,
+        // so every connection starts inside a "northwind" schema
+        String url = "jdbc:h2:mem:northwind" + DATABASES.incrementAndGet()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+                + ";INIT=CREATE SCHEMA IF NOT EXISTS northwind\\;SET SCHEMA northwind";
+
+        dataSource = new BasicDataSource();
+        dataSource.setUrl(url);
+        dataSource.setUsername("sa");
+        dataSource.setPassword("");
+
+        createTables();
+        load();
+    }
+
+    public BasicDataSource getDataSource() {
+        return dataSource;
+    }
+
+    public int getCustomers() {
+        return customers;
+    }
+
+    public int getProducts() {
+        return products;
+    }
+
+    public int getShippers() {
+        return shippers;
+    }
+
+    // Customer IDs are generated, not the real five letter ones, so any scale fits
+    public static String customerId(int index) {
+        return "C" + Integer.toString(index, 36).toUpperCase();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        } finally {
+            dataSource.close();
+        }
+    }
+
+    private void createTables() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+
+            statement.execute("""
+                    CREATE TABLE Customers (
+                        CustomerID VARCHAR(12) NOT NULL PRIMARY KEY,
+                        CompanyName VARCHAR(40) NOT NULL,
+                        ContactName VARCHAR(30),
+                        ContactTitle VARCHAR(30),
+                        Address VARCHAR(60),
+                        City VARCHAR(15),
+                        Region VARCHAR(15),
+                        PostalCode VARCHAR(10),
+                        Country VARCHAR(15),
+                        Phone VARCHAR(24),
+                        Fax VARCHAR(24)
+                    )
+                    """);
+
+            statement.execute("""
+                    CREATE TABLE Products (
+                        ProductID INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+                        ProductName VARCHAR(40) NOT NULL,
+                        SupplierID INT,
+                        CategoryID INT,
+                        QuantityPerUnit VARCHAR(20),
+                        UnitPrice DECIMAL(10, 4) DEFAULT 0,
+                        UnitsInStock SMALLINT DEFAULT 0,
+                        UnitsOnOrder SMALLINT DEFAULT 0,
+                        ReorderLevel SMALLINT DEFAULT 0,
+                        Discontinued TINYINT NOT NULL DEFAULT 0
+                    )
+                    """);
+
+            statement.execute("""
+                    CREATE TABLE Shippers (
+                        ShipperID INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+                        CompanyName VARCHAR(40) NOT NULL,
+                        Phone VARCHAR(24)
+                    )
+                    """);
+        }
+    }
+
+    private void load() throws SQLException {
+        Random random = new Random(42);
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO Customers VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+                for (int i = 0; i < customers; i++) {
+                    String country = COUNTRIES[random.nextInt(COUNTRIES.length)];
+                    statement.setString(1, customerId(i));
+                    statement.setString(2, "Company " + i);
+                    statement.setString(3, "Contact " + i);
+                    statement.setString(4, TITLES[random.nextInt(TITLES.length)]);
+                    statement.setString(5, random.nextInt(999) + " Main St.");
+                    statement.setString(6, CITIES[random.nextInt(CITIES.length)]);
+                    statement.setString(7, random.nextInt(4) == 0 ? "RJ" : null);
+                    statement.setString(8, String.valueOf(10000 + random.nextInt(90000)));
+                    statement.setString(9, country);
+                    statement.setString(10, "(5) 555-" + (1000 + random.nextInt(9000)));
+                    statement.setString(11, random.nextBoolean() ? "(5) 555-" + (1000 + random.nextInt(9000)) : null);
+                    statement.addBatch();
+                    if (i % 1000 == 999) {
+                        statement.executeBatch();
+                    }
+                }
+                statement.executeBatch();
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement("""
+                    INSERT INTO Products (ProductName, SupplierID, CategoryID, QuantityPerUnit, UnitPrice,
+                                          UnitsInStock, UnitsOnOrder, ReorderLevel, Discontinued)
+                    VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                    """)) {
+                for (int i = 0; i < products; i++) {
+                    statement.setString(1, "Product " + i);
+                    statement.setInt(2, 1 + random.nextInt(29));
+                    statement.setInt(3, 1 + random.nextInt(8));
+                    statement.setString(4, QUANTITIES[random.nextInt(QUANTITIES.length)]);
+                    statement.setDouble(5, 2.5 + random.nextInt(25000) / 100.0);
+                    statement.setInt(6, random.nextInt(125));
+                    statement.setInt(7, random.nextInt(5) == 0 ? random.nextInt(100) : 0);
+                    statement.setInt(8, random.nextInt(4) * 5);
+                    statement.setInt(9, random.nextInt(10) == 0 ? 1 : 0);
+                    statement.addBatch();
+                    if (i % 1000 == 999) {
+                        statement.executeBatch();
+                    }
+                }
+                statement.executeBatch();
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO Shippers (CompanyName, Phone) VALUES (?, ?)")) {
+                for (int i = 0; i < shippers; i++) {
+                    statement.setString(1, "Shipper " + i);
+                    statement.setString(2, "(503) 555-" + (1000 + random.nextInt(9000)));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+
+            connection.commit();
+        }
+    }
+}
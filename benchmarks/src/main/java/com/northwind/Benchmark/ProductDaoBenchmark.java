@@ -0,0 +1,81 @@
+package com.northwind.Benchmark;
+
+import com.northwind.Data.ProductDao;
+import com.northwind.Model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductDaoBenchmark {
+
+    // Number of rows in the Products table
+    @Param({"1000"})
+    public int scale;
+
+    private NorthwindDatabase database;
+    private ProductDao productDao;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = new NorthwindDatabase(0, scale, 0);
+        productDao = new ProductDao(database.getDataSource());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        database.close();
+    }
+
+    @Benchmark
+    public Product find() {
+        return productDao.find(1 + ThreadLocalRandom.current().nextInt(scale));
+    }
+
+    @Benchmark
+    public List<Product> getAll() {
+        return productDao.getAll();
+    }
+
+    @Benchmark
+    public long stream() {
+        try (Stream<Product> products = productDao.stream()) {
+            return products.count();
+        }
+    }
+
+    @Benchmark
+    public Product add() {
+        return productDao.add(newProduct(0));
+    }
+
+    @Benchmark
+    public void update() {
+        productDao.update(newProduct(1 + ThreadLocalRandom.current().nextInt(scale)));
+    }
+
+    private static Product newProduct(int productId) {
+        return new Product(productId, "Benchmark Product", 1, 1, "10 boxes x 20 bags", 18.0, 39, 0, 10, 0);
+    }
+}
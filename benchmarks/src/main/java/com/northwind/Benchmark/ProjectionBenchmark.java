@@ -0,0 +1,76 @@
+package com.northwind.Benchmark;
+
+import com.northwind.Data.CustomerDao;
+import com.northwind.Data.ProductDao;
+import com.northwind.Model.Customer;
+import com.northwind.Model.CustomerSummary;
+import com.northwind.Model.Product;
+import com.northwind.Model.ProductSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Full rows (getAll) against the two/three column projections (getSummaries) for list screens.
+// Compare the times and gc.alloc.rate.norm: the 11 column Customers table is where it shows most.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectionBenchmark {
+
+    // Number of rows in the Customers and Products tables
+    @Param({"10000"})
+    public int scale;
+
+    private NorthwindDatabase database;
+    private CustomerDao customerDao;
+    private ProductDao productDao;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = new NorthwindDatabase(scale, scale, 0);
+        customerDao = new CustomerDao(database.getDataSource());
+        productDao = new ProductDao(database.getDataSource());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        database.close();
+    }
+
+    @Benchmark
+    public List<Customer> customersFullRows() {
+        return customerDao.getAll();
+    }
+
+    @Benchmark
+    public List<CustomerSummary> customerSummaries() {
+        return customerDao.getSummaries();
+    }
+
+    @Benchmark
+    public List<Product> productsFullRows() {
+        return productDao.getAll();
+    }
+
+    @Benchmark
+    public List<ProductSummary> productSummaries() {
+        return productDao.getSummaries();
+    }
+}
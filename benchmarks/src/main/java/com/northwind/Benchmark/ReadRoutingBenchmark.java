@@ -0,0 +1,90 @@
+package com.northwind.Benchmark;
+
+import com.northwind.Data.ProductDao;
+import com.northwind.Data.ReplicaSelection;
+import com.northwind.Data.RoutingDataSource;
+import com.northwind.Model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// find() straight on the primary against find() through a RoutingDataSource that spreads the reads
+// over embedded "replicas" (separate in-memory databases with the same data). Shows what the routing
+// proxy costs per call and how the two replica selection strategies compare under concurrency.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class ReadRoutingBenchmark {
+
+    @Param({"1000"})
+    public int scale;
+
+    @Param({"2"})
+    public int replicas;
+
+    @Param({"ROUND_ROBIN", "LEAST_ACTIVE"})
+    public ReplicaSelection selection;
+
+    private NorthwindDatabase primary;
+    private final List<NorthwindDatabase> replicaDatabases = new ArrayList<>();
+    private RoutingDataSource router;
+    private ProductDao primaryDao;
+    private ProductDao routedDao;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        primary = new NorthwindDatabase(0, scale, 0);
+        router = new RoutingDataSource(primary.getDataSource(), selection);
+        // The embedded databases aren't replicating from anything - report them as caught up
+        router.setLagCheck(connection -> 0);
+        for (int i = 0; i < replicas; i++) {
+            NorthwindDatabase replica = new NorthwindDatabase(0, scale, 0);
+            replicaDatabases.add(replica);
+            router.addReplica("replica" + (i + 1), replica.getDataSource());
+        }
+        router.checkReplicas();
+
+        primaryDao = new ProductDao(primary.getDataSource());
+        routedDao = new ProductDao(router);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        router.close();
+        for (NorthwindDatabase replica : replicaDatabases) {
+            replica.close();
+        }
+        primary.close();
+    }
+
+    @Benchmark
+    public Product findOnPrimary() {
+        return primaryDao.find(1 + ThreadLocalRandom.current().nextInt(scale));
+    }
+
+    @Benchmark
+    public Product findRouted() {
+        return routedDao.find(1 + ThreadLocalRandom.current().nextInt(scale));
+    }
+}
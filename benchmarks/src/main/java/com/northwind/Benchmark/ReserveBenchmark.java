@@ -0,0 +1,125 @@
+package com.northwind.Benchmark;
+
+import com.northwind.Data.ProductDao;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Many threads fighting over the stock of a few products with reserve() and reserveAll().
+// This is also the overselling check: every successful reservation is counted on the Java side,
+// and after each iteration the stock left in the table must equal the starting stock minus
+// exactly those reservations, and never be negative. If it isn't, the run fails.
+//
+//     java -jar benchmarks/target/benchmarks.jar ReserveBenchmark -t 64
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(32)
+public class ReserveBenchmark {
+
+    // Few products and little stock so threads collide and stock really runs out
+    @Param({"16"})
+    public int products;
+
+    @Param({"2000"})
+    public int stock;
+
+    private NorthwindDatabase database;
+    private ProductDao productDao;
+
+    // Units reserved per product (index = ProductID - 1) since the last stock reset
+    private AtomicLongArray reserved;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = new NorthwindDatabase(0, products, 0);
+        database.getDataSource().setMaxTotal(64);
+        productDao = new ProductDao(database.getDataSource());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        database.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStock() throws SQLException {
+        try (Connection connection = database.getDataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE Products SET UnitsInStock = " + stock);
+        }
+        reserved = new AtomicLongArray(products);
+    }
+
+    @TearDown(Level.Iteration)
+    public void checkNoOverselling() throws SQLException {
+        try (Connection connection = database.getDataSource().getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT ProductID, UnitsInStock FROM Products");
+             ResultSet resultSet = statement.executeQuery()) {
+
+            while (resultSet.next()) {
+                int productId = resultSet.getInt(1);
+                int left = resultSet.getInt(2);
+                long expected = stock - reserved.get(productId - 1);
+                if (left < 0 || left != expected) {
+                    throw new IllegalStateException("Product " + productId + " has " + left
+                            + " units left but " + expected + " were expected - stock was oversold or lost");
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean reserve() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int productId = 1 + random.nextInt(products);
+        int quantity = 1 + random.nextInt(3);
+
+        boolean reservedOk = productDao.reserve(productId, quantity);
+        if (reservedOk) {
+            reserved.addAndGet(productId - 1, quantity);
+        }
+        return reservedOk;
+    }
+
+    // A three line order: all lines are reserved together or not at all
+    @Benchmark
+    public boolean reserveOrder() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Map<Integer, Integer> lines = new HashMap<>();
+        while (lines.size() < Math.min(3, products)) {
+            lines.put(1 + random.nextInt(products), 1 + random.nextInt(3));
+        }
+
+        boolean reservedOk = productDao.reserveAll(lines);
+        if (reservedOk) {
+            lines.forEach((productId, quantity) -> reserved.addAndGet(productId - 1, quantity));
+        }
+        return reservedOk;
+    }
+}
@@ -0,0 +1,69 @@
+package com.northwind.Benchmark;
+
+import com.northwind.Data.ShipperDao;
+import com.northwind.Model.Shipper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShipperDaoBenchmark {
+
+    // Number of rows in the Shippers table (Northwind itself has three)
+    @Param({"3"})
+    public int scale;
+
+    private NorthwindDatabase database;
+    private ShipperDao shipperDao;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = new NorthwindDatabase(0, 0, scale);
+        shipperDao = new ShipperDao(database.getDataSource());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        database.close();
+    }
+
+    @Benchmark
+    public Shipper find() {
+        return shipperDao.find(1 + ThreadLocalRandom.current().nextInt(scale));
+    }
+
+    @Benchmark
+    public List<Shipper> getAll() {
+        return shipperDao.getAll();
+    }
+
+    @Benchmark
+    public Shipper add() {
+        return shipperDao.add(new Shipper(0, "Benchmark Express", "(503) 555-0000"));
+    }
+
+    @Benchmark
+    public void update() {
+        shipperDao.update(new Shipper(1 + ThreadLocalRandom.current().nextInt(scale), "Benchmark Express", "(503) 555-0000"));
+    }
+}
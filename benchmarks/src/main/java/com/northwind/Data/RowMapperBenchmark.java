@@ -0,0 +1,92 @@
+package com.northwind.Data;
+
+import com.northwind.Benchmark.NorthwindDatabase;
+import com.northwind.Model.Customer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+// Row mapping on its own: the rows are already in memory, so only the cost of turning
+// them into Customer objects is measured. Lives in com.northwind.Data to reach the
+// package-private mappers.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowMapperBenchmark {
+
+    @Param({"1000"})
+    public int scale;
+
+    private NorthwindDatabase database;
+    private Connection connection;
+    private Statement statement;
+    private ResultSet resultSet;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = new NorthwindDatabase(scale, 0, 0);
+        connection = database.getDataSource().getConnection();
+        statement = connection.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+        resultSet = statement.executeQuery("""
+                SELECT CustomerID, CompanyName, ContactName, ContactTitle, Address, City, Region, PostalCode, Country, Phone, Fax
+                FROM Customers
+                """);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        resultSet.close();
+        statement.close();
+        connection.close();
+        database.close();
+    }
+
+    @Benchmark
+    public void customerMapper(Blackhole blackhole) throws SQLException {
+        resultSet.beforeFirst();
+        CustomerMapper mapper = new CustomerMapper();
+        while (resultSet.next()) {
+            blackhole.consume(mapper.mapRow(resultSet));
+        }
+    }
+
+    // The column-name lookups every DAO query used to do on every row
+    @Benchmark
+    public void columnNames(Blackhole blackhole) throws SQLException {
+        resultSet.beforeFirst();
+        while (resultSet.next()) {
+            blackhole.consume(new Customer(
+                    resultSet.getString("CustomerID"),
+                    resultSet.getString("CompanyName"),
+                    resultSet.getString("ContactName"),
+                    resultSet.getString("ContactTitle"),
+                    resultSet.getString("Address"),
+                    resultSet.getString("City"),
+                    resultSet.getString("Region"),
+                    resultSet.getString("PostalCode"),
+                    resultSet.getString("Country"),
+                    resultSet.getString("Phone"),
+                    resultSet.getString("Fax")));
+        }
+    }
+}
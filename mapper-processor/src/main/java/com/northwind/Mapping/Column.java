@@ -0,0 +1,19 @@
+package com.northwind.Mapping;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// The result set column a constructor parameter of a @MappedTable class is read from.
+// Supported parameter types: String, int, long, short, double, boolean and BigDecimal.
+// As with ResultSet.getInt() and friends, a NULL in a primitive column arrives as 0 / false.
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.SOURCE)
+public @interface Column {
+    String value();
+
+    // Pass the String through a StringPool column so rows share one copy of each value.
+    // Worth it for columns with few distinct values (Country, City, ...).
+    boolean pooled() default false;
+}
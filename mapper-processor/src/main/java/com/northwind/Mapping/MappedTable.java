@@ -0,0 +1,26 @@
+package com.northwind.Mapping;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Asks MapperProcessor to write a RowMapper for this model class at compile time.
+//
+//     @MappedTable(value = "Shippers", mapperPackage = "com.northwind.Data")
+//     public class Shipper {
+//         public Shipper(@Column("ShipperID") int shipperId, @Column("CompanyName") String companyName,
+//                        @Column("Phone") String phone) { ... }
+//
+// The class needs exactly one constructor whose parameters all have @Column; the mapper reads those
+// columns and calls it. The mapper is called <Class>Mapper and goes into mapperPackage, which must
+// hold the RowMapper interface (and StringPool, if any column is pooled).
+// Source-only: nothing of this is left in the compiled model class.
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.SOURCE)
+public @interface MappedTable {
+    // The table the columns come from; pooled columns are named "<table>.<column>" in the StringPool
+    String value();
+
+    String mapperPackage();
+}
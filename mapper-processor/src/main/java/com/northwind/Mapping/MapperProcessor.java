@@ -0,0 +1,206 @@
+package com.northwind.Mapping;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// Writes a RowMapper for every @MappedTable class while the project compiles.
+// The generated mapper looks every column up by name once per result set (the first time mapRow
+// sees it) and then reads each row by index, so there is no per-row name lookup and no reflection
+// at runtime - it is the same code one would write by hand, minus the chance to get it out of step
+// with the model's constructor.
+@SupportedAnnotationTypes("com.northwind.Mapping.MappedTable")
+public class MapperProcessor extends AbstractProcessor {
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(MappedTable.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@MappedTable only goes on classes");
+                continue;
+            }
+            TypeElement model = (TypeElement) element;
+            ExecutableElement constructor = mappedConstructor(model);
+            if (constructor == null) {
+                continue;
+            }
+
+            List<Field> fields = new ArrayList<>();
+            boolean ok = true;
+            for (VariableElement parameter : constructor.getParameters()) {
+                Field field = field(parameter);
+                ok &= field != null;
+                fields.add(field);
+            }
+            if (ok) {
+                write(model, model.getAnnotation(MappedTable.class), fields);
+            }
+        }
+        return true;
+    }
+
+    // The one public constructor that has @Column on every parameter
+    private ExecutableElement mappedConstructor(TypeElement model) {
+        ExecutableElement found = null;
+        for (Element member : model.getEnclosedElements()) {
+            if (member.getKind() != ElementKind.CONSTRUCTOR) {
+                continue;
+            }
+            ExecutableElement constructor = (ExecutableElement) member;
+            List<? extends VariableElement> parameters = constructor.getParameters();
+            if (parameters.isEmpty() || parameters.stream().anyMatch(p -> p.getAnnotation(Column.class) == null)) {
+                continue;
+            }
+            if (found != null) {
+                error(constructor, "Only one constructor of a @MappedTable class may have @Column parameters");
+                return null;
+            }
+            if (!constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                error(constructor, "The @Column constructor must be public so the mapper can call it");
+                return null;
+            }
+            found = constructor;
+        }
+        if (found == null) {
+            error(model, "@MappedTable class needs a constructor with @Column on every parameter");
+        }
+        return found;
+    }
+
+    private Field field(VariableElement parameter) {
+        Column column = parameter.getAnnotation(Column.class);
+        TypeMirror type = parameter.asType();
+        String getter = switch (type.getKind()) {
+            case INT -> "getInt";
+            case LONG -> "getLong";
+            case SHORT -> "getShort";
+            case DOUBLE -> "getDouble";
+            case BOOLEAN -> "getBoolean";
+            case DECLARED -> switch (type.toString()) {
+                case "java.lang.String" -> "getString";
+                case "java.math.BigDecimal" -> "getBigDecimal";
+                default -> null;
+            };
+            default -> null;
+        };
+        if (getter == null) {
+            error(parameter, "@Column can't map a parameter of type " + type);
+            return null;
+        }
+        if (column.pooled() && !getter.equals("getString")) {
+            error(parameter, "Only String columns can be pooled");
+            return null;
+        }
+        return new Field(parameter.getSimpleName() + "Column", column.value(), getter, column.pooled());
+    }
+
+    private void write(TypeElement model, MappedTable table, List<Field> fields) {
+        String modelName = model.getSimpleName().toString();
+        String mapperName = modelName + "Mapper";
+        String packageName = table.mapperPackage();
+
+        StringBuilder source = new StringBuilder();
+        source.append("package ").append(packageName).append(";\n\n");
+        source.append("import ").append(model.getQualifiedName()).append(";\n\n");
+        source.append("import javax.annotation.processing.Generated;\n");
+        source.append("import java.sql.ResultSet;\n");
+        source.append("import java.sql.SQLException;\n\n");
+        source.append("// Builds ").append(modelName).append(" objects from the ").append(table.value()).append(" columns.\n");
+        source.append("// Written by MapperProcessor from the @Column constructor of ").append(modelName).append(" - don't edit.\n");
+        source.append("// Column positions are resolved once per result set and every row is then read by index.\n");
+        source.append("// Use a new mapper per query - it remembers the result set it was last used with.\n");
+        source.append("@Generated(\"").append(MapperProcessor.class.getName()).append("\")\n");
+        source.append("final class ").append(mapperName).append(" implements RowMapper<").append(modelName).append("> {\n");
+
+        boolean pooled = false;
+        for (Field field : fields) {
+            if (field.pooled) {
+                source.append("    private static final StringPool.Column ").append(field.poolName())
+                        .append(" = StringPool.shared().column(\"").append(table.value()).append('.')
+                        .append(field.column).append("\");\n");
+                pooled = true;
+            }
+        }
+        if (pooled) {
+            source.append('\n');
+        }
+
+        source.append("    private ResultSet boundTo;\n");
+        for (Field field : fields) {
+            source.append("    private int ").append(field.name).append(";\n");
+        }
+
+        source.append("\n    @Override\n");
+        source.append("    public ").append(modelName).append(" mapRow(ResultSet resultSet) throws SQLException {\n");
+        source.append("        if (resultSet != boundTo) {\n");
+        source.append("            bind(resultSet);\n");
+        source.append("        }\n");
+        source.append("        return new ").append(modelName).append("(");
+        for (int i = 0; i < fields.size(); i++) {
+            Field field = fields.get(i);
+            source.append(i == 0 ? "\n" : ",\n").append("                ");
+            String read = "resultSet." + field.getter + "(" + field.name + ")";
+            source.append(field.pooled ? field.poolName() + ".intern(" + read + ")" : read);
+        }
+        source.append(");\n");
+        source.append("    }\n\n");
+
+        source.append("    private void bind(ResultSet resultSet) throws SQLException {\n");
+        for (Field field : fields) {
+            source.append("        ").append(field.name).append(" = resultSet.findColumn(\"").append(field.column).append("\");\n");
+        }
+        source.append("        boundTo = resultSet;\n");
+        source.append("    }\n");
+        source.append("}\n");
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(packageName + "." + mapperName, model).openWriter()) {
+            writer.write(source.toString());
+        } catch (IOException e) {
+            error(model, "Could not write " + mapperName + ": " + e.getMessage());
+        }
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    // One constructor parameter: the int field holding its column's position, and how to read it
+    private static final class Field {
+        private final String name;
+        private final String column;
+        private final String getter;
+        private final boolean pooled;
+
+        private Field(String name, String column, String getter, boolean pooled) {
+            this.name = name;
+            this.column = column;
+            this.getter = getter;
+            this.pooled = pooled;
+        }
+
+        // "ContactTitle" -> "CONTACT_TITLE_POOL"
+        String poolName() {
+            return column.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase(Locale.ROOT) + "_POOL";
+        }
+    }
+}
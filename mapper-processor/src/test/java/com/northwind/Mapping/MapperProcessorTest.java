@@ -0,0 +1,147 @@
+package com.northwind.Mapping;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Compiles small model classes with the processor and looks at what it wrote or complained about
+class MapperProcessorTest {
+    private static final String ROW_MAPPER = """
+            package test.data;
+            public interface RowMapper<T> {
+                T mapRow(java.sql.ResultSet resultSet) throws java.sql.SQLException;
+            }
+            """;
+
+    @TempDir
+    Path output;
+
+    @Test
+    void writesAMapperThatReadsByIndex() throws IOException {
+        List<String> errors = compile("""
+                package test.model;
+                import com.northwind.Mapping.Column;
+                import com.northwind.Mapping.MappedTable;
+                @MappedTable(value = "Things", mapperPackage = "test.data")
+                public class Thing {
+                    public Thing() {
+                    }
+                    public Thing(@Column("ThingID") int id, @Column("Name") String name,
+                                 @Column("Price") java.math.BigDecimal price) {
+                    }
+                }
+                """);
+
+        assertEquals(List.of(), errors);
+        String mapper = Files.readString(output.resolve("test/data/ThingMapper.java"));
+        assertTrue(mapper.contains("final class ThingMapper implements RowMapper<Thing>"), mapper);
+        assertTrue(mapper.contains("idColumn = resultSet.findColumn(\"ThingID\");"), mapper);
+        assertTrue(mapper.contains("resultSet.getInt(idColumn),"), mapper);
+        assertTrue(mapper.contains("resultSet.getBigDecimal(priceColumn));"), mapper);
+        assertTrue(Files.exists(output.resolve("test/data/ThingMapper.class")));
+    }
+
+    @Test
+    void rejectsTypesItCantRead() throws IOException {
+        List<String> errors = compile("""
+                package test.model;
+                import com.northwind.Mapping.Column;
+                import com.northwind.Mapping.MappedTable;
+                @MappedTable(value = "Things", mapperPackage = "test.data")
+                public class Thing {
+                    public Thing(@Column("ThingID") int id, @Column("Tags") java.util.List<String> tags) {
+                    }
+                }
+                """);
+
+        assertEquals(1, errors.size(), errors.toString());
+        assertTrue(errors.get(0).contains("can't map a parameter of type java.util.List<java.lang.String>"));
+    }
+
+    @Test
+    void rejectsPoolingANumber() throws IOException {
+        List<String> errors = compile("""
+                package test.model;
+                import com.northwind.Mapping.Column;
+                import com.northwind.Mapping.MappedTable;
+                @MappedTable(value = "Things", mapperPackage = "test.data")
+                public class Thing {
+                    public Thing(@Column(value = "ThingID", pooled = true) int id) {
+                    }
+                }
+                """);
+
+        assertEquals(List.of("Only String columns can be pooled"), errors);
+    }
+
+    @Test
+    void needsAColumnConstructor() throws IOException {
+        List<String> errors = compile("""
+                package test.model;
+                import com.northwind.Mapping.MappedTable;
+                @MappedTable(value = "Things", mapperPackage = "test.data")
+                public class Thing {
+                    public Thing(int id) {
+                    }
+                }
+                """);
+
+        assertEquals(List.of("@MappedTable class needs a constructor with @Column on every parameter"), errors);
+    }
+
+    // Compiles RowMapper and the Thing source into output with MapperProcessor and returns the error messages
+    private List<String> compile(String thing) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, null, null)) {
+            files.setLocationFromPaths(StandardLocation.CLASS_OUTPUT, List.of(output));
+            files.setLocationFromPaths(StandardLocation.SOURCE_OUTPUT, List.of(output));
+
+            List<JavaFileObject> units = List.of(new Source("test/data/RowMapper.java", ROW_MAPPER),
+                    new Source("test/model/Thing.java", thing));
+            JavaCompiler.CompilationTask task = compiler.getTask(null, files, diagnostics,
+                    List.of("-classpath", System.getProperty("java.class.path")), null, units);
+            task.setProcessors(List.of(new MapperProcessor()));
+            task.call();
+        }
+
+        List<String> errors = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                errors.add(diagnostic.getMessage(null));
+            }
+        }
+        return errors;
+    }
+
+    private static final class Source extends SimpleJavaFileObject {
+        private final String code;
+
+        private Source(String path, String code) {
+            super(URI.create("string:///" + path), Kind.SOURCE);
+            this.code = code;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+    }
+}
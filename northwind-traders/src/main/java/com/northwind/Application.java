@@ -0,0 +1,183 @@
+package com.northwind;
+
+import com.northwind.Data.Bulkhead;
+import com.northwind.Data.BulkheadDataSource;
+import com.northwind.Data.CircuitBreaker;
+import com.northwind.Data.CustomerDao;
+import com.northwind.Data.DaoMetrics;
+import com.northwind.Data.InstrumentedDataSource;
+import com.northwind.Data.ProductDao;
+import com.northwind.Data.ReplicaSelection;
+import com.northwind.Data.ResilientDataSource;
+import com.northwind.Data.RoutingDataSource;
+import com.northwind.Data.SlowQueryLog;
+import com.northwind.Data.SlowQueryLogDataSource;
+import com.northwind.Data.SnapshotShipperDao;
+import com.northwind.Data.StringPool;
+import com.northwind.Data.TransactionalDataSource;
+import com.northwind.Data.Warmup;
+import com.northwind.Model.Customer;
+import com.northwind.Model.Product;
+import com.northwind.Model.Shipper;
+import org.apache.commons.dbcp2.BasicDataSource;
+
+import java.time.Duration;
+import java.util.List;
+
+
+public class Application {
+    public static void main(String[] args) {
+        String username = args[0];
+        String password = args[1];
+        // useCursorFetch lets the DAOs' stream() methods read big tables a few hundred rows at a time
+        // rewriteBatchedStatements turns the addAll() batches into multi-row INSERTs
+        // cachePrepStmts keeps each connection's server-side prepared statements (useCursorFetch turns
+        // those on) so a statement is only prepared once per connection - the warm-up below does that
+        String url = "jdbc:mysql://localhost:3306/northwind?useCursorFetch=true&rewriteBatchedStatements=true"
+                + "&cachePrepStmts=true";
+
+        BasicDataSource dataSource = new BasicDataSource();
+        dataSource.setUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        // Connections the pool keeps open even when idle; the warm-up opens them before the first request
+        dataSource.setMinIdle(4);
+
+        // Per-method latency histograms and pool gauges, published over JMX (com.northwind)
+        // Start with -Dnorthwind.metrics=true, or flip DaoMetrics.Enabled from JConsole at runtime
+        DaoMetrics metrics = new DaoMetrics(Boolean.getBoolean("northwind.metrics"));
+        metrics.registerMBeans();
+        metrics.registerPool("primary", dataSource);
+
+        // Statements slower than -Dnorthwind.slowQueryMillis (default 200) are grouped by SQL fingerprint
+        SlowQueryLog slowQueryLog = new SlowQueryLog(Long.getLong("northwind.slowQueryMillis", 200));
+        slowQueryLog.registerMBean();
+
+        // Repeated column values (Country, City, QuantityPerUnit, ...) are shared between rows
+        StringPool.shared().registerMBean();
+
+        // Transient failures on the primary are retried; 5 in a row open the breaker for 10 seconds
+        ResilientDataSource primary = new ResilientDataSource(dataSource,
+                new CircuitBreaker("primary", 5, Duration.ofSeconds(10)));
+        primary.getBreaker().registerMBean();
+
+        // Reads go to the replicas listed in -Dnorthwind.replicas (comma separated JDBC urls, same login),
+        // writes and transactions to the primary. Without the property everything uses the primary.
+        RoutingDataSource router = new RoutingDataSource(primary, ReplicaSelection.LEAST_ACTIVE);
+        String replicaUrls = System.getProperty("northwind.replicas", "");
+        for (String replicaUrl : replicaUrls.split(",")) {
+            if (replicaUrl.isBlank()) {
+                continue;
+            }
+            BasicDataSource replica = new BasicDataSource();
+            replica.setUrl(replicaUrl.strip());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            String name = "replica" + (router.getReplicaCount() + 1);
+            router.addReplica(name, replica);
+            metrics.registerPool(name, replica);
+        }
+        if (router.getReplicaCount() > 0) {
+            router.startHealthChecks(Duration.ofSeconds(5));
+        }
+
+        // transactions.inTransaction(...) makes the DAO calls inside it share one connection and commit once
+        TransactionalDataSource transactions = new TransactionalDataSource(router);
+
+        InstrumentedDataSource daoDataSource = new InstrumentedDataSource(
+                new SlowQueryLogDataSource(transactions, slowQueryLog), metrics);
+
+        // Each DAO gets its own share of the pool's 8 connections, so a burst of customer scans can't
+        // starve product lookups. A call waits at most the queue timeout for a slot, then is rejected.
+        Bulkhead customerCalls = new Bulkhead("customers", 3, Duration.ofSeconds(1), Duration.ofSeconds(30));
+        Bulkhead productCalls = new Bulkhead("products", 4, Duration.ofMillis(200), Duration.ofSeconds(2));
+        Bulkhead shipperCalls = new Bulkhead("shippers", 1, Duration.ofMillis(500), Duration.ofSeconds(5));
+        customerCalls.registerMBean();
+        productCalls.registerMBean();
+        shipperCalls.registerMBean();
+
+        // Shippers hardly ever change - serve them from memory
+        SnapshotShipperDao shipperDao= new SnapshotShipperDao(new BulkheadDataSource(daoDataSource, shipperCalls));
+        ProductDao productDao =new ProductDao(new BulkheadDataSource(daoDataSource, productCalls));
+
+        CustomerDao customerDao = new CustomerDao(new BulkheadDataSource(daoDataSource, customerCalls));
+
+        // Open the pool's connections, run each DAO's lookups and load the caches before doing any
+        // real work; com.northwind:type=Warmup says Ready once that is done
+        Warmup warmup = new Warmup(dataSource);
+        warmup.registerMBean();
+        warmup.addStatements("CustomerDao.find", 200, () -> customerDao.find("ALFKI"));
+        warmup.addStatements("ProductDao.find", 200, () -> productDao.find(1));
+        warmup.addStatements("ProductDao.findAll", 50, () -> productDao.findAll(List.of(1, 2, 3)));
+        warmup.addPreload("Shippers", shipperDao::refresh);
+        warmup.run();
+        System.out.println(warmup);
+        List<Customer> customers =  customerDao.getAll();
+        System.out.println("Total: "+customers.size());
+        if (!customers.isEmpty()) {
+            System.out.println("First customer: " + customers.get(0));
+        }
+        Customer foundCustomer = customerDao.find("ALFKI");
+        if (foundCustomer != null) {
+            System.out.println("Found: " + foundCustomer);
+        } else {
+            System.out.println("Customer ALFKI not found.");
+        }
+//        System.out.println("\n--- Test 3: Add New Customer ---");
+//        Customer newCustomer = new Customer(
+//                "TSTID",              // Customer ID - we choose this (it's the primary key)
+//                "Test Company",       // Company name
+//                "John Doe",           // Contact person's name
+//                "Manager",            // Their job title
+//                "123 Test St",        // Street address
+//                "Test City",          // City
+//                "TC",                 // Region/State abbreviation
+//                "12345",              // Postal/ZIP code
+//                "USA",                // Country
+//                "555-1234",           // Phone number
+//                "555-5678"            // Fax number
+//        );
+//        Customer addedCustomer = customerDao.add(newCustomer);
+//        System.out.println("Added: " + addedCustomer);
+//        System.out.println("\n--- Test 4: Verify Customer Was Added ---");
+//        Customer verifyCustomer = customerDao.find("TSTID");
+//        if (verifyCustomer != null) {
+//            System.out.println("Verified: " + verifyCustomer);
+//        } else {  System.out.println("Customer TSTID not found after adding.");
+//        }
+
+        System.out.println("\n--- Test 2: Find Shipper by ID ---");
+        Shipper foundShipper = shipperDao.find(1);
+        if (foundShipper != null) {
+            System.out.println("Found: " + foundShipper);
+        } else {
+            System.out.println("Shipper with ID 1 not found.");
+        }
+//        ProductDao productDao = new ProductDao(dataSource);
+//        List<Product> products = productDao.getAll();
+//        System.out.println(products);
+
+        Product foundProduct = productDao.find(1);
+        if (foundProduct != null) {
+            System.out.println("Found it: "+ foundProduct);
+        }else{
+            System.out.println("product with ID 1 not found");
+        }
+
+        if (metrics.isEnabled()) {
+            System.out.println(metrics);
+            System.out.println(StringPool.shared());
+        }
+        if (slowQueryLog.getSlowQueryCount() > 0) {
+            System.out.println(slowQueryLog.dump(10));
+        }
+        if (router.getReplicaCount() > 0) {
+            System.out.println(router);
+        }
+        if (primary.getRetries() > 0 || primary.getBreaker().getOpens() > 0) {
+            System.out.println(primary);
+        }
+        shipperDao.close();
+        router.close();
+    }
+}
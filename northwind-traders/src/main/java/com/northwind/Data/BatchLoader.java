@@ -0,0 +1,260 @@
+package com.northwind.Data;
+
+import com.northwind.Model.Customer;
+import com.northwind.Model.Product;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+// Collects point lookups from many threads and resolves them together (like a "DataLoader").
+// load(key) does not query right away: the key joins the current batch, and the batch is sent
+// as one findAll(...) call once the window has passed or maxBatchSize distinct keys are waiting.
+// Threads asking for the same key inside one window share a single slot in the batch.
+//
+//     BatchLoader<Integer, Product> products = BatchLoader.forProducts(productDao, Duration.ofMillis(2), 200);
+//     CompletableFuture<Product> chai = products.load(1);
+//
+// Keys that don't exist complete with null. If the batch query fails, every future in it completes
+// exceptionally with the SQLException: the DAOs swallow it, so this relies on DaoCallStatus, which
+// needs the DAO's data source to be one of the layers that record failures (BulkheadDataSource,
+// RoutingDataSource, ResilientDataSource). Behind a plain pool a failed batch completes with nulls.
+//
+// At most maxConcurrentBatches queries run at once (4 unless given); up to MAX_QUEUED_BATCHES more
+// wait for a thread. A batch beyond that, or one sent while close() shuts down, fails with
+// RejectedExecutionException instead of piling up.
+public class BatchLoader<K, V> implements AutoCloseable {
+    public static final int DEFAULT_CONCURRENT_BATCHES = 4;
+    public static final int MAX_QUEUED_BATCHES = 256;
+
+    private final Function<Collection<K>, Map<K, V>> batchFunction;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final UnaryOperator<V> copier;
+
+    private final ScheduledExecutorService timer;
+    private final ExecutorService dispatcher;
+
+    // The batch currently collecting keys. Guarded by "this".
+    private LinkedHashMap<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+    private boolean closed;
+
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder keysDispatched = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private final LongAdder rejectedBatches = new LongAdder();
+
+    public BatchLoader(Function<Collection<K>, Map<K, V>> batchFunction, Duration window, int maxBatchSize) {
+        this(batchFunction, window, maxBatchSize, null);
+    }
+
+    // copier (may be null) gives every caller its own copy of a shared result
+    public BatchLoader(Function<Collection<K>, Map<K, V>> batchFunction, Duration window, int maxBatchSize,
+                       UnaryOperator<V> copier) {
+        this(batchFunction, window, maxBatchSize, copier, DEFAULT_CONCURRENT_BATCHES);
+    }
+
+    public BatchLoader(Function<Collection<K>, Map<K, V>> batchFunction, Duration window, int maxBatchSize,
+                       UnaryOperator<V> copier, int maxConcurrentBatches) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive");
+        }
+        if (maxConcurrentBatches <= 0) {
+            throw new IllegalArgumentException("maxConcurrentBatches must be positive");
+        }
+        if (window.isNegative()) {
+            throw new IllegalArgumentException("window must not be negative");
+        }
+        this.batchFunction = batchFunction;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.copier = copier;
+        this.timer = Executors.newSingleThreadScheduledExecutor(daemon("batch-loader-timer"));
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(maxConcurrentBatches, maxConcurrentBatches, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(MAX_QUEUED_BATCHES), daemon("batch-loader-dispatch"));
+        pool.allowCoreThreadTimeOut(true);
+        this.dispatcher = pool;
+    }
+
+    public static BatchLoader<Integer, Product> forProducts(ProductDao productDao, Duration window, int maxBatchSize) {
+        return new BatchLoader<>(productDao::findAll, window, maxBatchSize, Product::new);
+    }
+
+    public static BatchLoader<String, Customer> forCustomers(CustomerDao customerDao, Duration window, int maxBatchSize) {
+        return new BatchLoader<>(customerDao::findAll, window, maxBatchSize, Customer::new);
+    }
+
+    public CompletableFuture<V> load(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("key must not be null");
+        }
+        loads.increment();
+
+        CompletableFuture<V> shared;
+        LinkedHashMap<K, CompletableFuture<V>> full = null;
+
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("BatchLoader is closed");
+            }
+
+            shared = pending.get(key);
+            if (shared == null) {
+                shared = new CompletableFuture<>();
+                pending.put(key, shared);
+
+                if (pending.size() == 1) {
+                    // First key of a new batch starts the window
+                    LinkedHashMap<K, CompletableFuture<V>> batch = pending;
+                    timer.schedule(() -> dispatchIfPending(batch), windowNanos, TimeUnit.NANOSECONDS);
+                }
+                if (pending.size() >= maxBatchSize) {
+                    full = takePending();
+                }
+            }
+        }
+
+        if (full != null) {
+            dispatch(full);
+        }
+
+        if (copier == null) {
+            return shared;
+        }
+        return shared.thenApply(value -> value == null ? null : copier.apply(value));
+    }
+
+    // Sends whatever is waiting right now without waiting for the window
+    public void flush() {
+        LinkedHashMap<K, CompletableFuture<V>> batch;
+        synchronized (this) {
+            batch = pending.isEmpty() ? null : takePending();
+        }
+        if (batch != null) {
+            dispatch(batch);
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        flush();
+        timer.shutdownNow();
+        dispatcher.shutdown();
+    }
+
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    public long getKeysDispatched() {
+        return keysDispatched.sum();
+    }
+
+    // Batches whose query failed (their futures completed exceptionally)
+    public long getFailedBatches() {
+        return failedBatches.sum();
+    }
+
+    // Batches that never ran because the dispatch queue was full or the loader was closing
+    public long getRejectedBatches() {
+        return rejectedBatches.sum();
+    }
+
+    // Average number of distinct keys per query - the higher, the more round trips were saved
+    public double getAverageBatchSize() {
+        long batchCount = batches.sum();
+        return batchCount == 0 ? 0.0 : (double) keysDispatched.sum() / batchCount;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchLoader " +
+                " loads = " + getLoads() + '\n' +
+                " batches = " + getBatches() + '\n' +
+                " keysDispatched = " + getKeysDispatched() + '\n' +
+                " failedBatches = " + getFailedBatches() + '\n' +
+                " rejectedBatches = " + getRejectedBatches() + '\n';
+    }
+
+    private void dispatchIfPending(LinkedHashMap<K, CompletableFuture<V>> batch) {
+        synchronized (this) {
+            // The batch may already have been sent because it filled up
+            if (pending != batch || batch.isEmpty()) {
+                return;
+            }
+            takePending();
+        }
+        dispatch(batch);
+    }
+
+    private LinkedHashMap<K, CompletableFuture<V>> takePending() {
+        LinkedHashMap<K, CompletableFuture<V>> batch = pending;
+        pending = new LinkedHashMap<>();
+        return batch;
+    }
+
+    private void dispatch(LinkedHashMap<K, CompletableFuture<V>> batch) {
+        batches.increment();
+        keysDispatched.add(batch.size());
+
+        try {
+            dispatcher.execute(() -> run(batch));
+        } catch (RejectedExecutionException e) {
+            rejectedBatches.increment();
+            fail(batch, e);
+        }
+    }
+
+    private void run(LinkedHashMap<K, CompletableFuture<V>> batch) {
+        Map<K, V> values;
+        try {
+            DaoCallStatus.begin();
+            values = batchFunction.apply(new ArrayList<>(batch.keySet()));
+        } catch (RuntimeException | Error e) {
+            failedBatches.increment();
+            fail(batch, e);
+            return;
+        }
+        // The DAO printed the error and returned an empty (or partial) map - don't pass that off as "not found"
+        if (DaoCallStatus.lastCallFailed()) {
+            failedBatches.increment();
+            fail(batch, DaoCallStatus.lastFailure());
+            return;
+        }
+        batch.forEach((key, future) -> future.complete(values.get(key)));
+    }
+
+    private static <K, V> void fail(LinkedHashMap<K, CompletableFuture<V>> batch, Throwable cause) {
+        batch.values().forEach(future -> future.completeExceptionally(cause));
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,441 @@
+package com.northwind.Data;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.GZIPOutputStream;
+
+// Writes whole tables to CSV or NDJSON files for downstream systems.
+// Rows come from a forward-only cursor (fetchSize rows per round trip) and are encoded straight
+// into one reusable byte buffer per export - no Customer/Product objects and no String per line -
+// which then goes through a 64 KB direct buffer into a FileChannel, optionally gzipped on the way.
+// Unlike the DAOs this throws on failure: a half written export file must not look like a good one.
+// The rows go to a temporary file next to the target, which is renamed over it only once the export
+// is complete, so readers see the old file or the new one and never a partial one.
+public class BulkExporter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final Column[] CUSTOMER_COLUMNS = {
+            new Column("CustomerID", ColumnType.STRING),
+            new Column("CompanyName", ColumnType.STRING),
+            new Column("ContactName", ColumnType.STRING),
+            new Column("ContactTitle", ColumnType.STRING),
+            new Column("Address", ColumnType.STRING),
+            new Column("City", ColumnType.STRING),
+            new Column("Region", ColumnType.STRING),
+            new Column("PostalCode", ColumnType.STRING),
+            new Column("Country", ColumnType.STRING),
+            new Column("Phone", ColumnType.STRING),
+            new Column("Fax", ColumnType.STRING)};
+
+    private static final Column[] PRODUCT_COLUMNS = {
+            new Column("ProductID", ColumnType.INT),
+            new Column("ProductName", ColumnType.STRING),
+            new Column("SupplierID", ColumnType.INT),
+            new Column("CategoryID", ColumnType.INT),
+            new Column("QuantityPerUnit", ColumnType.STRING),
+            new Column("UnitPrice", ColumnType.DECIMAL),
+            new Column("UnitsInStock", ColumnType.INT),
+            new Column("UnitsOnOrder", ColumnType.INT),
+            new Column("ReorderLevel", ColumnType.INT),
+            new Column("Discontinued", ColumnType.INT)};
+
+    private final DataSource dataSource;
+    private int fetchSize = 1000;
+
+    public BulkExporter(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("fetchSize must be positive");
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    public ExportResult exportCustomers(Path file, ExportFormat format, boolean gzip) throws IOException, SQLException {
+        String query = """
+                SELECT CustomerID, CompanyName, ContactName, ContactTitle, Address, City, Region, PostalCode, Country, Phone, Fax
+                FROM Customers
+                ORDER BY CustomerID;
+                """;
+        return export(query, CUSTOMER_COLUMNS, file, format, gzip);
+    }
+
+    public ExportResult exportProducts(Path file, ExportFormat format, boolean gzip) throws IOException, SQLException {
+        String query = """
+                SELECT ProductID,ProductName,SupplierID,CategoryID,QuantityPerUnit,UnitPrice,UnitsInStock,UnitsOnOrder,ReorderLevel,Discontinued
+                FROM Products
+                ORDER BY ProductID;
+                """;
+        return export(query, PRODUCT_COLUMNS, file, format, gzip);
+    }
+
+    private ExportResult export(String query, Column[] columns, Path file, ExportFormat format, boolean gzip)
+            throws IOException, SQLException {
+        long start = System.nanoTime();
+        long rows = 0;
+        long bytesEncoded = 0;
+
+        Path temp = file.resolveSibling("." + file.getFileName() + "."
+                + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            statement.setFetchSize(fetchSize);
+
+            try (ResultSet resultSet = statement.executeQuery();
+                 OutputStream out = open(temp, gzip)) {
+
+                int[] ordinals = new int[columns.length];
+                for (int i = 0; i < columns.length; i++) {
+                    ordinals[i] = resultSet.findColumn(columns[i].name);
+                }
+
+                RowEncoder encoder = new RowEncoder();
+                if (format == ExportFormat.CSV) {
+                    encoder.csvHeader(columns);
+                    out.write(encoder.bytes, 0, encoder.length);
+                    bytesEncoded += encoder.length;
+                }
+
+                while (resultSet.next()) {
+                    encoder.reset();
+                    if (format == ExportFormat.CSV) {
+                        encoder.csvRow(resultSet, columns, ordinals);
+                    } else {
+                        encoder.jsonRow(resultSet, columns, ordinals);
+                    }
+                    out.write(encoder.bytes, 0, encoder.length);
+                    bytesEncoded += encoder.length;
+                    rows++;
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        } catch (IOException | SQLException | RuntimeException | Error e) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException cleanup) {
+                e.addSuppressed(cleanup);
+            }
+            throw e;
+        }
+
+        return new ExportResult(file, rows, bytesEncoded, Files.size(file), System.nanoTime() - start);
+    }
+
+    private static OutputStream open(Path file, boolean gzip) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        OutputStream out = new ChannelOutputStream(channel);
+        return gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+    }
+
+    private enum ColumnType {
+        // DECIMAL is written exactly as stored (BigDecimal.toPlainString - never 1.0E-4)
+        STRING, INT, DECIMAL
+    }
+
+    private static final class Column {
+        private final String name;
+        private final ColumnType type;
+        // "\"CustomerID\":" already encoded, so JSON keys cost a single array copy per row
+        private final byte[] jsonKey;
+
+        private Column(String name, ColumnType type) {
+            this.name = name;
+            this.type = type;
+            this.jsonKey = ('"' + name + "\":").getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    // Builds one encoded row at a time in a byte array that is reused (and only grows) for the whole export
+    private static final class RowEncoder {
+        private byte[] bytes = new byte[1024];
+        private int length;
+
+        void reset() {
+            length = 0;
+        }
+
+        void csvHeader(Column[] columns) {
+            reset();
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    put((byte) ',');
+                }
+                utf8(columns[i].name, false);
+            }
+            put((byte) '\n');
+        }
+
+        void csvRow(ResultSet resultSet, Column[] columns, int[] ordinals) throws SQLException {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    put((byte) ',');
+                }
+                switch (columns[i].type) {
+                    case INT -> {
+                        int value = resultSet.getInt(ordinals[i]);
+                        if (!resultSet.wasNull()) {
+                            digits(value);
+                        }
+                    }
+                    case DECIMAL -> {
+                        BigDecimal value = resultSet.getBigDecimal(ordinals[i]);
+                        if (value != null) {
+                            ascii(value.toPlainString());
+                        }
+                    }
+                    case STRING -> {
+                        // NULL is an empty field
+                        String value = resultSet.getString(ordinals[i]);
+                        if (value != null) {
+                            csvString(value);
+                        }
+                    }
+                }
+            }
+            put((byte) '\n');
+        }
+
+        void jsonRow(ResultSet resultSet, Column[] columns, int[] ordinals) throws SQLException {
+            put((byte) '{');
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    put((byte) ',');
+                }
+                put(columns[i].jsonKey);
+                switch (columns[i].type) {
+                    case INT -> {
+                        int value = resultSet.getInt(ordinals[i]);
+                        if (resultSet.wasNull()) {
+                            ascii("null");
+                        } else {
+                            digits(value);
+                        }
+                    }
+                    case DECIMAL -> {
+                        BigDecimal value = resultSet.getBigDecimal(ordinals[i]);
+                        if (value == null) {
+                            ascii("null");
+                        } else {
+                            ascii(value.toPlainString());
+                        }
+                    }
+                    case STRING -> {
+                        String value = resultSet.getString(ordinals[i]);
+                        if (value == null) {
+                            ascii("null");
+                        } else {
+                            put((byte) '"');
+                            utf8(value, true);
+                            put((byte) '"');
+                        }
+                    }
+                }
+            }
+            put((byte) '}');
+            put((byte) '\n');
+        }
+
+        // Quotes the field only when it contains a comma, quote or line break (RFC 4180)
+        private void csvString(String value) {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                utf8(value, false);
+                return;
+            }
+            put((byte) '"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    put((byte) '"');
+                }
+                utf8Char(value, i, c);
+                if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    i++;
+                }
+            }
+            put((byte) '"');
+        }
+
+        // Encodes the string as UTF-8, escaping it for a JSON string if asked to
+        private void utf8(String value, boolean jsonEscape) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (jsonEscape && (c == '"' || c == '\\' || c < 0x20)) {
+                    jsonEscape(c);
+                    continue;
+                }
+                utf8Char(value, i, c);
+                if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    i++;
+                }
+            }
+        }
+
+        private void utf8Char(String value, int index, char c) {
+            if (c < 0x80) {
+                put((byte) c);
+            } else if (c < 0x800) {
+                ensure(2);
+                bytes[length++] = (byte) (0xC0 | (c >> 6));
+                bytes[length++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && index + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(index + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(index + 1));
+                ensure(4);
+                bytes[length++] = (byte) (0xF0 | (codePoint >> 18));
+                bytes[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                bytes[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                bytes[length++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // A broken surrogate pair can't be encoded - write a replacement character
+                put((byte) '?');
+            } else {
+                ensure(3);
+                bytes[length++] = (byte) (0xE0 | (c >> 12));
+                bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[length++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+
+        private void jsonEscape(char c) {
+            put((byte) '\\');
+            switch (c) {
+                case '"' -> put((byte) '"');
+                case '\\' -> put((byte) '\\');
+                case '\n' -> put((byte) 'n');
+                case '\r' -> put((byte) 'r');
+                case '\t' -> put((byte) 't');
+                default -> {
+                    ascii("u00");
+                    put((byte) Character.forDigit(c >> 4, 16));
+                    put((byte) Character.forDigit(c & 0xF, 16));
+                }
+            }
+        }
+
+        // Writes the decimal digits of value without going through Integer.toString
+        private void digits(long value) {
+            if (value < 0) {
+                put((byte) '-');
+                value = -value;
+            }
+            int count = 1;
+            for (long rest = value / 10; rest > 0; rest /= 10) {
+                count++;
+            }
+            ensure(count);
+            for (int i = length + count - 1; i >= length; i--) {
+                bytes[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            length += count;
+        }
+
+        private void ascii(String value) {
+            ensure(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                bytes[length++] = (byte) value.charAt(i);
+            }
+        }
+
+        private void put(byte value) {
+            ensure(1);
+            bytes[length++] = value;
+        }
+
+        private void put(byte[] values) {
+            ensure(values.length);
+            System.arraycopy(values, 0, bytes, length, values.length);
+            length += values.length;
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > bytes.length) {
+                byte[] bigger = new byte[Math.max(bytes.length * 2, length + extra)];
+                System.arraycopy(bytes, 0, bigger, 0, length);
+                bytes = bigger;
+            }
+        }
+    }
+
+    // An OutputStream that collects writes in one direct buffer and hands full buffers to the FileChannel
+    private static final class ChannelOutputStream extends OutputStream {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        private ChannelOutputStream(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            buffer.put((byte) b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                if (!buffer.hasRemaining()) {
+                    drain();
+                }
+                int chunk = Math.min(length, buffer.remaining());
+                buffer.put(bytes, offset, chunk);
+                offset += chunk;
+                length -= chunk;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            drain();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                drain();
+                // On disk before the rename makes it the export
+                channel.force(false);
+            } finally {
+                channel.close();
+            }
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.northwind.Data;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// A limit on how many DAO calls of one kind may hold a pooled connection at the same time.
+//
+//     Bulkhead scans = new Bulkhead("scans", 2, Duration.ofMillis(500), Duration.ofSeconds(30));
+//
+// At most maxConcurrent calls run at once. The next one waits up to queueTimeout for a slot and is
+// then rejected with BulkheadFullException, so a flood of one kind of call can use its own slots
+// but never the whole pool. Each call also gets callTimeout (zero for none) from the moment it
+// has its slot: statements get it as their query timeout, and whatever is still running when it
+// runs out is cancelled (DeadlineExceededException).
+//
+// Keep the maxConcurrent of all bulkheads over one pool at or below the pool's maxTotal if a
+// call that got its slot should never wait on the pool. Use with BulkheadDataSource.
+public class Bulkhead implements BulkheadMXBean {
+    private final String name;
+    private final int maxConcurrent;
+    private final Semaphore slots;
+    private volatile long queueTimeoutNanos;
+    private volatile long callTimeoutNanos;
+
+    private final AtomicLong acquired = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong deadlinesExceeded = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public Bulkhead(String name, int maxConcurrent, Duration queueTimeout, Duration callTimeout) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("maxConcurrent must be positive");
+        }
+        if (queueTimeout.isNegative() || callTimeout.isNegative()) {
+            throw new IllegalArgumentException("timeouts can't be negative");
+        }
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        // Fair, so a waiting call isn't overtaken by ones that arrived after it
+        this.slots = new Semaphore(maxConcurrent, true);
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+        this.callTimeoutNanos = callTimeout.toNanos();
+    }
+
+    // Takes a slot, waiting at most queueTimeout; call release() exactly once afterwards
+    void acquire() throws BulkheadFullException {
+        long start = System.nanoTime();
+        boolean gotSlot;
+        try {
+            gotSlot = slots.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            gotSlot = false;
+        }
+        long waited = System.nanoTime() - start;
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+        if (!gotSlot) {
+            rejected.incrementAndGet();
+            throw new BulkheadFullException(name, maxConcurrent, TimeUnit.NANOSECONDS.toMillis(waited));
+        }
+        acquired.incrementAndGet();
+    }
+
+    void release() {
+        slots.release();
+    }
+
+    void deadlineExceeded() {
+        deadlinesExceeded.incrementAndGet();
+    }
+
+    long callTimeoutNanos() {
+        return callTimeoutNanos;
+    }
+
+    public void registerMBean() {
+        try {
+            ObjectName objectName = new ObjectName("com.northwind:type=Bulkhead,name=" + ObjectName.quote(name));
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(objectName)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            }
+        } catch (JMException e) {
+            System.out.println("There was an error publishing the bulkhead over JMX.");
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    // Calls holding a slot right now
+    @Override
+    public int getActive() {
+        return maxConcurrent - slots.availablePermits();
+    }
+
+    // Calls queued for a slot right now (an estimate)
+    @Override
+    public int getWaiting() {
+        return slots.getQueueLength();
+    }
+
+    @Override
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    @Override
+    public long getQueueTimeoutMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(queueTimeoutNanos);
+    }
+
+    @Override
+    public void setQueueTimeoutMillis(long queueTimeoutMillis) {
+        if (queueTimeoutMillis < 0) {
+            throw new IllegalArgumentException("queueTimeoutMillis can't be negative");
+        }
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMillis);
+    }
+
+    // 0 means calls have no deadline
+    @Override
+    public long getCallTimeoutMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(callTimeoutNanos);
+    }
+
+    @Override
+    public void setCallTimeoutMillis(long callTimeoutMillis) {
+        if (callTimeoutMillis < 0) {
+            throw new IllegalArgumentException("callTimeoutMillis can't be negative");
+        }
+        this.callTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(callTimeoutMillis);
+    }
+
+    @Override
+    public long getAcquired() {
+        return acquired.get();
+    }
+
+    // Calls shed because no slot came free within the queue timeout
+    @Override
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    @Override
+    public long getDeadlinesExceeded() {
+        return deadlinesExceeded.get();
+    }
+
+    @Override
+    public long getMaxWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+    }
+
+    @Override
+    public String toString() {
+        return "Bulkhead " + name + '\n' +
+                " maxConcurrent = " + maxConcurrent + '\n' +
+                " acquired = " + getAcquired() + '\n' +
+                " rejected = " + getRejected() + '\n' +
+                " deadlinesExceeded = " + getDeadlinesExceeded() + '\n' +
+                " maxWaitMillis = " + getMaxWaitMillis() + '\n';
+    }
+}
@@ -0,0 +1,228 @@
+package com.northwind.Data;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Puts a Bulkhead in front of the shared pool for one DAO, so one DAO's load can't starve the others.
+//
+//     Bulkhead lookups = new Bulkhead("products", 4, Duration.ofMillis(100), Duration.ofSeconds(2));
+//     Bulkhead scans = new Bulkhead("customers", 2, Duration.ofSeconds(1), Duration.ofSeconds(30));
+//     ProductDao productDao = new ProductDao(new BulkheadDataSource(pool, lookups));
+//     CustomerDao customerDao = new CustomerDao(new BulkheadDataSource(pool, scans));
+//
+// Each getConnection() takes a slot in the bulkhead and gives it back when the DAO closes the
+// connection; a call that can't get a slot in time fails with BulkheadFullException without
+// waiting on the pool. route() gives single DAO methods their own bulkhead (getAll apart from
+// find, say) - finding the calling method walks the stack, so that costs a little per call.
+//
+// While a call holds its slot its statements get the time left until its deadline as their query
+// timeout (rounded up to whole seconds, the JDBC unit, and only if the DAO didn't set a shorter one).
+// At the deadline itself any statement still open is cancelled, and a statement started after it
+// fails straight away - both with DeadlineExceededException. Streams (streamAll, ...) hold their
+// connection until they are closed, so give bulkheads for exports no call timeout.
+//
+// The DAOs swallow these exceptions like any other SQL error, so each getConnection() starts a new
+// call in DaoCallStatus and a rejection, a deadline or a failing statement is recorded there:
+// DaoCallStatus.lastFailure() instanceof BulkheadFullException tells a shed call from an empty result.
+public class BulkheadDataSource extends DelegatingDataSource {
+    // One daemon thread for all the deadlines: a task per call, removed again when the call finishes in time
+    private static final ScheduledThreadPoolExecutor DEADLINES = createDeadlineTimer();
+
+    private final Bulkhead bulkhead;
+    private final Map<String, Bulkhead> routes = new ConcurrentHashMap<>();
+
+    public BulkheadDataSource(DataSource delegate, Bulkhead bulkhead) {
+        super(delegate);
+        this.bulkhead = bulkhead;
+    }
+
+    // Calls from daoMethod ("CustomerDao.getAll") use bulkhead instead of the default one
+    public void route(String daoMethod, Bulkhead bulkhead) {
+        routes.put(daoMethod, bulkhead);
+    }
+
+    public Bulkhead getBulkhead() {
+        return bulkhead;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Bulkhead chosen = routes.isEmpty() ? bulkhead : routes.getOrDefault(JdbcProxies.callingDaoMethod(), bulkhead);
+        DaoCallStatus.begin();
+        try {
+            chosen.acquire();
+        } catch (BulkheadFullException e) {
+            DaoCallStatus.failed(e);
+            throw e;
+        }
+
+        // The deadline counts from getting the slot, so waiting on the pool uses up the call's time too
+        long timeoutNanos = chosen.callTimeoutNanos();
+        long deadline = System.nanoTime() + timeoutNanos;
+        if (timeoutNanos > 0) {
+            // Lets the layers below (ResilientDataSource's retries) stay inside this call's deadline
+            DaoCallStatus.deadline(deadline);
+        } else {
+            DaoCallStatus.noDeadline();
+        }
+
+        Connection connection;
+        try {
+            connection = delegate.getConnection();
+        } catch (SQLException | RuntimeException e) {
+            chosen.release();
+            DaoCallStatus.endDeadline(deadline);
+            if (e instanceof SQLException failure) {
+                DaoCallStatus.failed(failure);
+            }
+            throw e;
+        }
+        return new Call(chosen, connection, timeoutNanos, deadline).proxy;
+    }
+
+    private static ScheduledThreadPoolExecutor createDeadlineTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "northwind-deadlines");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    // One DAO call: its slot, its deadline and the statements it has open
+    private static final class Call {
+        private final Bulkhead bulkhead;
+        private final long timeoutNanos;
+        private final long deadline;
+        private final Connection proxy;
+        private final List<Statement> open = new ArrayList<>();
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private final ScheduledFuture<?> canceller;
+        private volatile boolean cancelled;
+
+        private Call(Bulkhead bulkhead, Connection connection, long timeoutNanos, long deadline) {
+            this.bulkhead = bulkhead;
+            this.timeoutNanos = timeoutNanos;
+            this.deadline = deadline;
+            this.canceller = timeoutNanos > 0
+                    ? DEADLINES.schedule(this::cancelRunning, Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)
+                    : null;
+            this.proxy = JdbcProxies.wrap(Connection.class, connection, (target, method, args) -> {
+                if (method.getName().equals("close")) {
+                    try {
+                        return JdbcProxies.invoke(target, method, args);
+                    } finally {
+                        finish();
+                    }
+                }
+                Object result = JdbcProxies.invoke(target, method, args);
+                if (result instanceof CallableStatement statement) {
+                    return watch(CallableStatement.class, statement);
+                }
+                if (result instanceof PreparedStatement statement) {
+                    return watch(PreparedStatement.class, statement);
+                }
+                if (result instanceof Statement statement) {
+                    return watch(Statement.class, statement);
+                }
+                return result;
+            });
+        }
+
+        private <S extends Statement> S watch(Class<S> type, S statement) {
+            synchronized (open) {
+                open.add(statement);
+            }
+            return JdbcProxies.wrap(type, statement, (target, method, args) -> {
+                String name = method.getName();
+                if (name.equals("close")) {
+                    synchronized (open) {
+                        open.remove(statement);
+                    }
+                    return JdbcProxies.invoke(target, method, args);
+                }
+                if (!name.startsWith("execute")) {
+                    return JdbcProxies.invoke(target, method, args);
+                }
+                try {
+                    return execute(statement, method, args);
+                } catch (SQLException e) {
+                    // The DAO prints and swallows this; DaoCallStatus keeps it for the caller
+                    DaoCallStatus.failed(e);
+                    throw e;
+                }
+            });
+        }
+
+        private Object execute(Statement statement, Method method, Object[] args) throws Throwable {
+            if (timeoutNanos == 0) {
+                return JdbcProxies.invoke(statement, method, args);
+            }
+            long remaining = deadline - System.nanoTime();
+            if (cancelled || remaining <= 0) {
+                throw exceeded(null);
+            }
+            int seconds = (int) Math.min(Integer.MAX_VALUE, (remaining + 999_999_999L) / 1_000_000_000L);
+            int current = statement.getQueryTimeout();
+            if (current == 0 || current > seconds) {
+                statement.setQueryTimeout(seconds);
+            }
+            try {
+                return JdbcProxies.invoke(statement, method, args);
+            } catch (SQLException e) {
+                if (cancelled || deadline - System.nanoTime() <= 0) {
+                    throw exceeded(e);
+                }
+                throw e;
+            }
+        }
+
+        private DeadlineExceededException exceeded(SQLException cause) {
+            return new DeadlineExceededException(bulkhead.getName(), TimeUnit.NANOSECONDS.toMillis(timeoutNanos), cause);
+        }
+
+        // Runs on the deadline timer if the call is still going
+        private void cancelRunning() {
+            if (finished.get()) {
+                return;
+            }
+            cancelled = true;
+            bulkhead.deadlineExceeded();
+            List<Statement> running;
+            synchronized (open) {
+                running = new ArrayList<>(open);
+            }
+            for (Statement statement : running) {
+                try {
+                    statement.cancel();
+                } catch (SQLException e) {
+                    // Already finished or closed - nothing left to stop
+                }
+            }
+        }
+
+        private void finish() {
+            if (finished.compareAndSet(false, true)) {
+                if (canceller != null) {
+                    canceller.cancel(false);
+                    DaoCallStatus.endDeadline(deadline);
+                }
+                bulkhead.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.northwind.Data;
+
+import java.sql.SQLTransientConnectionException;
+
+// Thrown by BulkheadDataSource.getConnection() when its bulkhead already has maxConcurrent calls
+// running and no slot freed up within the queue timeout. The call was shed before touching the pool.
+public class BulkheadFullException extends SQLTransientConnectionException {
+    private static final long serialVersionUID = 1L;
+
+    public BulkheadFullException(String bulkhead, int maxConcurrent, long waitedMillis) {
+        super("Bulkhead " + bulkhead + " is full (" + maxConcurrent + " calls running, waited "
+                + waitedMillis + " ms) - call rejected", "08004");
+    }
+}
@@ -0,0 +1,28 @@
+package com.northwind.Data;
+
+// One bulkhead over JMX: how full it is, how much it sheds, and its limits (which can be changed live).
+public interface BulkheadMXBean {
+    String getName();
+
+    int getActive();
+
+    int getWaiting();
+
+    int getMaxConcurrent();
+
+    long getQueueTimeoutMillis();
+
+    void setQueueTimeoutMillis(long queueTimeoutMillis);
+
+    long getCallTimeoutMillis();
+
+    void setCallTimeoutMillis(long callTimeoutMillis);
+
+    long getAcquired();
+
+    long getRejected();
+
+    long getDeadlinesExceeded();
+
+    long getMaxWaitMillis();
+}
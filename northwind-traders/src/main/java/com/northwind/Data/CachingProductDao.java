@@ -0,0 +1,245 @@
+package com.northwind.Data;
+
+import com.northwind.Model.Product;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// A ProductDao that remembers the products it has already looked up.
+// find() is served from memory while the entry is younger than the TTL; the least recently
+// used product is dropped once the cache holds maxSize entries. add/update/delete and the stock
+// changes made through this DAO throw away the matching entry so this process never reads its own
+// stale writes.
+// Changes made by other processes show up once the TTL runs out.
+// Inside a TransactionalDataSource unit of work find() goes straight to the database (it has to see
+// the unit's own writes, and what it reads there mustn't be cached before the commit), and the
+// entries written to are thrown away again once it commits.
+public class CachingProductDao extends ProductDao {
+    private final int maxSize;
+    private final long ttlNanos;
+    private final TransactionalDataSource transactions;
+
+    // accessOrder = true makes iteration order "least recently used first",
+    // which is exactly what removeEldestEntry needs to evict
+    private final LinkedHashMap<Integer, Entry> entries;
+
+    // One token per product being loaded, removed again by invalidate(). A find() that started
+    // loading before an update of that product must not put its (now stale) result into the cache
+    // afterwards; loads of other products are unaffected. Guarded by entries.
+    private final Map<Integer, Object> loading = new HashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    public CachingProductDao(DataSource dataSource, int maxSize, Duration ttl) {
+        super(dataSource);
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.transactions = TransactionalDataSource.find(dataSource);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+                if (size() > CachingProductDao.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public Product find(int productID) {
+        if (inTransaction()) {
+            return super.find(productID);
+        }
+        long now = System.nanoTime();
+
+        synchronized (entries) {
+            Entry entry = entries.get(productID);
+            if (entry != null) {
+                if (now - entry.loadedAt < ttlNanos) {
+                    hits.incrementAndGet();
+                    return new Product(entry.product);
+                }
+                entries.remove(productID);
+                expirations.incrementAndGet();
+            }
+        }
+
+        misses.incrementAndGet();
+        Object token = new Object();
+        synchronized (entries) {
+            loading.put(productID, token);
+        }
+        Product product = null;
+        try {
+            product = super.find(productID);
+        } finally {
+            synchronized (entries) {
+                // Still ours: the product wasn't invalidated (and no later find() started) while loading.
+                // Products that don't exist are not cached, so a later add() is seen straight away.
+                if (loading.remove(productID, token) && product != null) {
+                    entries.put(productID, new Entry(new Product(product), now));
+                }
+            }
+        }
+        return product;
+    }
+
+    @Override
+    public Product add(Product product) {
+        Product added = super.add(product);
+        written(added.getProductID());
+        return added;
+    }
+
+    @Override
+    public void update(Product product) {
+        try {
+            super.update(product);
+        } finally {
+            written(product.getProductID());
+        }
+    }
+
+    @Override
+    public void delete(int productID) {
+        try {
+            super.delete(productID);
+        } finally {
+            written(productID);
+        }
+    }
+
+    @Override
+    public boolean reserve(int productID, int quantity) {
+        try {
+            return super.reserve(productID, quantity);
+        } finally {
+            written(productID);
+        }
+    }
+
+    @Override
+    public boolean release(int productID, int quantity) {
+        try {
+            return super.release(productID, quantity);
+        } finally {
+            written(productID);
+        }
+    }
+
+    @Override
+    public boolean reserveAll(Map<Integer, Integer> quantities) {
+        try {
+            return super.reserveAll(quantities);
+        } finally {
+            quantities.keySet().forEach(this::written);
+        }
+    }
+
+    // adjustStockAll and StockDeltaBuffer both write through here
+    @Override
+    void writeStockDeltas(Collection<StockDelta> deltas) throws SQLException {
+        try {
+            super.writeStockDeltas(deltas);
+        } finally {
+            deltas.forEach(delta -> written(delta.getProductID()));
+        }
+    }
+
+    public void invalidate(int productID) {
+        synchronized (entries) {
+            loading.remove(productID);
+            entries.remove(productID);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            loading.clear();
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getExpirations() {
+        return expirations.get();
+    }
+
+    public double getHitRatio() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    @Override
+    public String toString() {
+        return "CachingProductDao " +
+                " size = " + size() + "/" + maxSize + '\n' +
+                " hits = " + hits.get() + '\n' +
+                " misses = " + misses.get() + '\n' +
+                " evictions = " + evictions.get() + '\n' +
+                " expirations = " + expirations.get() + '\n';
+    }
+
+    private boolean inTransaction() {
+        return transactions != null && transactions.isInTransaction();
+    }
+
+    // Drops the entry now, and inside a unit of work again after the commit: another thread may
+    // have cached the committed (old) row in between
+    private void written(int productID) {
+        invalidate(productID);
+        if (inTransaction()) {
+            transactions.afterCommit(() -> invalidate(productID));
+        }
+    }
+
+    // The cache keeps its own copy and hands out copies, so changing a returned Product can't corrupt it
+    private static final class Entry {
+        private final Product product;
+        private final long loadedAt;
+
+        private Entry(Product product, long loadedAt) {
+            this.product = product;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.northwind.Data;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Stops sending work to a database that keeps failing, so request threads fail fast instead of
+// each waiting out connection timeouts on a pool that can't deliver.
+//
+//  CLOSED     normal: every call goes through. failureThreshold failures in a row open the breaker.
+//  OPEN       every call is turned away at once, for openDuration.
+//  HALF_OPEN  after openDuration one trial call is let through. If it works the breaker closes,
+//             if it fails it opens for another openDuration. Other calls are still turned away while
+//             the trial runs; a trial that never reports back is replaced after openDuration.
+//
+// Callers ask tryAcquire() before a call and report the outcome with recordSuccess()/recordFailure().
+// Only failures that say something about the database's health should be recorded as failures
+// (see ResilientDataSource) - a duplicate key is an answer, not an outage.
+public class CircuitBreaker implements CircuitBreakerMXBean {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong trialStartedAt = new AtomicLong(Long.MIN_VALUE);
+    private volatile long openedAt;
+
+    private final AtomicLong successes = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong opens = new AtomicLong();
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("failureThreshold must be positive");
+        }
+        if (openDuration.isNegative() || openDuration.isZero()) {
+            throw new IllegalArgumentException("openDuration must be positive");
+        }
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    // True if the call may go ahead; false means fail fast without touching the database
+    public boolean tryAcquire() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        long now = System.nanoTime();
+        if (current == State.OPEN) {
+            if (now - openedAt < openNanos) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            state.compareAndSet(State.OPEN, State.HALF_OPEN);
+        }
+
+        // Half open: one trial at a time
+        long trial = trialStartedAt.get();
+        if ((trial == Long.MIN_VALUE || now - trial >= openNanos) && trialStartedAt.compareAndSet(trial, now)) {
+            return true;
+        }
+        rejected.incrementAndGet();
+        return false;
+    }
+
+    public void recordSuccess() {
+        successes.incrementAndGet();
+        consecutiveFailures.set(0);
+        if (state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+            trialStartedAt.set(Long.MIN_VALUE);
+        }
+    }
+
+    public void recordFailure() {
+        failures.incrementAndGet();
+        int inARow = consecutiveFailures.incrementAndGet();
+        State current = state.get();
+        if (current == State.HALF_OPEN || (current == State.CLOSED && inARow >= failureThreshold)) {
+            open(current);
+        }
+    }
+
+    public State state() {
+        return state.get();
+    }
+
+    public void registerMBean() {
+        try {
+            ObjectName objectName = new ObjectName("com.northwind:type=CircuitBreaker,name=" + ObjectName.quote(name));
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(objectName)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            }
+        } catch (JMException e) {
+            System.out.println("There was an error publishing the circuit breaker over JMX.");
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getState() {
+        return state.get().name();
+    }
+
+    @Override
+    public int getConsecutiveFailures() {
+        return consecutiveFailures.get();
+    }
+
+    @Override
+    public long getSuccesses() {
+        return successes.get();
+    }
+
+    @Override
+    public long getFailures() {
+        return failures.get();
+    }
+
+    // Calls turned away without touching the database
+    @Override
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    // How many times the breaker has opened
+    @Override
+    public long getOpens() {
+        return opens.get();
+    }
+
+    // Closes the breaker (e.g. once an operator knows the database is back)
+    @Override
+    public void reset() {
+        consecutiveFailures.set(0);
+        trialStartedAt.set(Long.MIN_VALUE);
+        state.set(State.CLOSED);
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker " + name + '\n' +
+                " state = " + getState() + '\n' +
+                " successes = " + getSuccesses() + '\n' +
+                " failures = " + getFailures() + '\n' +
+                " rejected = " + getRejected() + '\n' +
+                " opens = " + getOpens() + '\n';
+    }
+
+    private void open(State from) {
+        // Set before the state changes, so nobody sees OPEN with an old openedAt
+        openedAt = System.nanoTime();
+        if (state.compareAndSet(from, State.OPEN)) {
+            trialStartedAt.set(Long.MIN_VALUE);
+            opens.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.northwind.Data;
+
+// Shows over JMX whether the database circuit breaker is letting calls through, and lets an operator reset it.
+public interface CircuitBreakerMXBean {
+    String getName();
+
+    String getState();
+
+    int getConsecutiveFailures();
+
+    long getSuccesses();
+
+    long getFailures();
+
+    long getRejected();
+
+    long getOpens();
+
+    void reset();
+}
@@ -0,0 +1,32 @@
+package com.northwind.Data;
+
+import com.northwind.Model.Customer;
+
+import javax.sql.DataSource;
+
+// A CustomerDao whose find() shares one query between all threads asking for the same
+// customer at the same moment. Each caller still gets its own Customer object.
+// Inside a TransactionalDataSource unit of work find() runs its own query: what it reads there may
+// not be committed yet, so it can't be handed to other threads.
+public class CoalescingCustomerDao extends CustomerDao {
+    private final TransactionalDataSource transactions;
+    private final SingleFlight<String, Customer> flights = new SingleFlight<>();
+
+    public CoalescingCustomerDao(DataSource dataSource) {
+        super(dataSource);
+        this.transactions = TransactionalDataSource.find(dataSource);
+    }
+
+    @Override
+    public Customer find(String customerId) {
+        if (transactions != null && transactions.isInTransaction()) {
+            return super.find(customerId);
+        }
+        Customer customer = flights.execute(customerId, () -> super.find(customerId));
+        return customer == null ? null : new Customer(customer);
+    }
+
+    public SingleFlight<String, Customer> getSingleFlight() {
+        return flights;
+    }
+}
@@ -0,0 +1,32 @@
+package com.northwind.Data;
+
+import com.northwind.Model.Product;
+
+import javax.sql.DataSource;
+
+// A ProductDao whose find() shares one query between all threads asking for the same
+// product at the same moment. Each caller still gets its own Product object.
+// Inside a TransactionalDataSource unit of work find() runs its own query: what it reads there may
+// not be committed yet, so it can't be handed to other threads.
+public class CoalescingProductDao extends ProductDao {
+    private final TransactionalDataSource transactions;
+    private final SingleFlight<Integer, Product> flights = new SingleFlight<>();
+
+    public CoalescingProductDao(DataSource dataSource) {
+        super(dataSource);
+        this.transactions = TransactionalDataSource.find(dataSource);
+    }
+
+    @Override
+    public Product find(int productID) {
+        if (transactions != null && transactions.isInTransaction()) {
+            return super.find(productID);
+        }
+        Product product = flights.execute(productID, () -> super.find(productID));
+        return product == null ? null : new Product(product);
+    }
+
+    public SingleFlight<Integer, Product> getSingleFlight() {
+        return flights;
+    }
+}
@@ -0,0 +1,47 @@
+package com.northwind.Data;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.apache.commons.dbcp2.PoolableConnection;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+
+// Reads the pool gauges straight from the BasicDataSource every time they are asked for.
+public class ConnectionPoolStats implements ConnectionPoolStatsMXBean {
+    private final BasicDataSource pool;
+
+    public ConnectionPoolStats(BasicDataSource pool) {
+        this.pool = pool;
+    }
+
+    // Connections currently lent out to a DAO
+    @Override
+    public int getActive() {
+        return pool.getNumActive();
+    }
+
+    // Open connections sitting in the pool, ready to use
+    @Override
+    public int getIdle() {
+        return pool.getNumIdle();
+    }
+
+    // Threads blocked in getConnection() because every connection is in use
+    @Override
+    public int getWaiters() {
+        GenericObjectPool<PoolableConnection> connections = pool.getConnectionPool();
+        return connections == null ? 0 : connections.getNumWaiters();
+    }
+
+    @Override
+    public int getMaxTotal() {
+        return pool.getMaxTotal();
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPool " +
+                " active = " + getActive() + '\n' +
+                " idle = " + getIdle() + '\n' +
+                " waiters = " + getWaiters() + '\n' +
+                " maxTotal = " + getMaxTotal() + '\n';
+    }
+}
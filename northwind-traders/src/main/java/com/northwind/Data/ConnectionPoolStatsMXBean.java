@@ -0,0 +1,12 @@
+package com.northwind.Data;
+
+// Live gauges of a BasicDataSource connection pool, as shown over JMX.
+public interface ConnectionPoolStatsMXBean {
+    int getActive();
+
+    int getIdle();
+
+    int getWaiters();
+
+    int getMaxTotal();
+}
@@ -0,0 +1,511 @@
+package com.northwind.Data;
+
+import com.northwind.Model.Customer;
+import com.northwind.Model.CustomerSummary;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class CustomerDao {
+    private DataSource dataSource;
+
+    // How many rows the driver pulls from MySQL per round trip when streaming
+    private int fetchSize = 500;
+
+    // How many rows addAll() sends per batch (and commits per transaction)
+    private int batchSize = 1000;
+
+    public CustomerDao(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("fetchSize must be positive");
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.batchSize = batchSize;
+    }
+
+    public List<Customer> getAll() {
+        List<Customer> customers = new ArrayList<>();
+
+        String query = """
+                SELECT CustomerID,CompanyName,ContactName,ContactTitle,
+                Address,City,Region,PostalCode,Country,Phone,fax
+                FROM Customers;
+                """;
+
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+
+            CustomerMapper mapper = new CustomerMapper();
+            try (ResultSet resultSet = statement.executeQuery()) {
+
+
+                while (resultSet.next()) {
+                    Customer customer = mapper.mapRow(resultSet);
+                    customers.add(customer);
+                }
+            }
+
+
+        } catch (SQLException e) {
+            System.out.println("There was an error retrieving the data. Please try again.");
+            e.printStackTrace();
+        }
+
+        return customers;
+
+    }
+
+    // METHOD 2: FIND ONE CUSTOMER BY ID
+    // This searches for a specific customer using their unique ID
+    // It's like looking up a specific person in a phone book
+    public Customer find(String customerId) {
+
+        // Start with null (nothing) - we'll replace this if we find the customer
+        // null is like an empty box - it represents "no value yet"
+        Customer customer = null;
+
+        // SQL query with a ? placeholder - this is for security!
+        // The ? is like a fill-in-the-blank that we'll safely fill in later
+        // WHERE CustomerID = ? means "only get the row where the ID matches what I specify"
+        String query = """
+                SELECT CustomerID, CompanyName, ContactName, ContactTitle, Address, City, Region, PostalCode, Country, Phone, Fax
+                FROM Customers
+                WHERE CustomerID = ?;
+                """;
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            // Fill in the ? placeholder with the actual customer ID
+            // The "1" means "the first placeholder" (in case there were multiple)
+            // This is safer than putting the ID directly in the query (prevents SQL injection attacks)
+            statement.setString(1, customerId);
+
+            CustomerMapper mapper = new CustomerMapper();
+            try (ResultSet resultSet = statement.executeQuery()) {
+
+                // "if" instead of "while" because we expect at most ONE result
+                // Customer IDs are unique, so there should only be one match
+                if (resultSet.next()) {
+                    // We found them! Build the Customer object
+                    customer = mapper.mapRow(resultSet);
+                }
+                // If resultSet.next() is false, customer stays null (customer not found)
+            }
+
+        } catch (SQLException e) {
+            System.out.println("There was an error retrieving the data. Please try again.");
+            e.printStackTrace();
+            // Recorded here too, so "not found" and "couldn't look" can be told apart even when no
+            // layer underneath records failures
+            DaoCallStatus.failed(e);
+        }
+
+        // Return the customer (or null if not found)
+        return customer;
+    }
+
+    // METHOD 3: ADD A NEW CUSTOMER
+    // This inserts a brand new customer into the database
+    // It's like adding a new contact to your phone
+    public Customer add(Customer customer) {
+
+        // INSERT INTO means "add a new row to this table"
+        // The ? marks are placeholders for all the customer's information
+        // We have 11 placeholders because we're inserting 11 pieces of information
+        String query = """
+                INSERT INTO Customers (CustomerID, CompanyName, ContactName, ContactTitle, Address, City, Region, PostalCode, Country, Phone, Fax)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?);
+                """;
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            // Fill in each ? placeholder with data from the customer object
+            // Think of it like filling out a form, one field at a time
+            // The number (1, 2, 3...) corresponds to which ? we're filling in (left to right)
+            statement.setString(1, customer.getCustomerID());      // 1st ? gets the ID
+            statement.setString(2, customer.getCompanyName());     // 2nd ? gets the company name
+            statement.setString(3, customer.getContactName());     // 3rd ? gets the contact name
+            statement.setString(4, customer.getContactTitle());    // And so on...
+            statement.setString(5, customer.getAddress());
+            statement.setString(6, customer.getCity());
+            statement.setString(7, customer.getRegion());
+            statement.setString(8, customer.getPostalCode());
+            statement.setString(9, customer.getCountry());
+            statement.setString(10, customer.getPhone());
+            statement.setString(11, customer.getFax());            // 11th ? gets the fax
+
+            // executeUpdate() runs the INSERT command
+            // Unlike executeQuery() which retrieves data, executeUpdate() changes data
+            // It's like pressing the "Save" button
+            statement.executeUpdate();
+
+        } catch (SQLException e) {
+            System.out.println("There was an error adding the customer. Please try again.");
+            e.printStackTrace();
+        }
+
+        // Return the customer object we just added
+        return customer;
+    }
+
+    // METHOD 4: UPDATE AN EXISTING CUSTOMER
+    // This modifies information for a customer that already exists in the database
+    // It's like editing a contact in your phone
+    public void update(Customer customer) {
+
+        // UPDATE means "modify an existing row"
+        // SET specifies which columns to change and to what values
+        // WHERE specifies which customer to update (using their ID)
+        // Without WHERE, it would update EVERY customer - that would be bad!
+        String query = """
+                UPDATE Customers
+                SET CompanyName = ?, ContactName = ?, ContactTitle = ?, Address = ?, City = ?, Region = ?, PostalCode = ?, Country = ?, Phone = ?, Fax = ?
+                WHERE CustomerID = ?;
+                """;
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            // Fill in the placeholders with the customer's updated information
+            // Notice: CustomerID comes LAST (position 11) because it's in the WHERE clause at the end
+            statement.setString(1, customer.getCompanyName());     // Update company name
+            statement.setString(2, customer.getContactName());     // Update contact name
+            statement.setString(3, customer.getContactTitle());    // Update contact title
+            statement.setString(4, customer.getAddress());         // Update address
+            statement.setString(5, customer.getCity());            // Update city
+            statement.setString(6, customer.getRegion());          // Update region
+            statement.setString(7, customer.getPostalCode());      // Update postal code
+            statement.setString(8, customer.getCountry());         // Update country
+            statement.setString(9, customer.getPhone());           // Update phone
+            statement.setString(10, customer.getFax());            // Update fax
+            statement.setString(11, customer.getCustomerID());     // Which customer to update (WHERE clause)
+
+            // Execute the update - save the changes to the database
+            statement.executeUpdate();
+
+        } catch (SQLException e) {
+            System.out.println("There was an error updating the customer. Please try again.");
+            e.printStackTrace();
+        }
+
+        // This method returns nothing (void) - it just does the update
+    }
+
+    // METHOD 5: DELETE A CUSTOMER
+    // This permanently removes a customer from the database
+    // It's like deleting a contact from your phone - be careful!
+    public void delete(String customerId) {
+
+        // DELETE FROM means "remove a row from this table"
+        // WHERE specifies which customer to delete
+        // Without WHERE, it would delete ALL customers - disaster!
+        String query = """
+                DELETE FROM Customers
+                WHERE CustomerID = ?;
+                """;
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            // Fill in which customer to delete
+            statement.setString(1, customerId);
+
+            // Execute the deletion - the customer is now gone from the database
+            statement.executeUpdate();
+
+        } catch (SQLException e) {
+            System.out.println("There was an error deleting the customer. Please try again.");
+            e.printStackTrace();
+        }
+
+        // This method returns nothing (void) - it just performs the deletion
+    }
+
+    // METHOD 6: STREAM ALL CUSTOMERS
+    // Like getAll(), but hands out the customers one at a time instead of building a huge list first
+    // MySQL sends fetchSize rows at a time (the url needs useCursorFetch=true), so memory stays flat
+    // IMPORTANT: the stream holds a connection open - always use it in a try-with-resources block
+    // If the connection fails part way through, the stream throws DataAccessException instead of just ending
+    public Stream<Customer> stream() {
+
+        String query = """
+                SELECT CustomerID, CompanyName, ContactName, ContactTitle, Address, City, Region, PostalCode, Country, Phone, Fax
+                FROM Customers;
+                """;
+
+        return ResultSetStreams.stream(dataSource, query, fetchSize, new CustomerMapper());
+    }
+
+    // METHOD 7: DO SOMETHING WITH EVERY CUSTOMER
+    // Same as stream(), but closes the stream for you once every customer has been handled
+    public void forEach(Consumer<? super Customer> action) {
+        try (Stream<Customer> customers = stream()) {
+            customers.forEach(action);
+        }
+    }
+
+    // METHOD 8: GET ONE PAGE OF CUSTOMERS
+    // Keyset ("seek") paging: instead of OFFSET, we ask for the customers whose ID comes after
+    // the last one we already have. MySQL jumps straight there using the primary key index,
+    // so page 1000 costs the same as page 1.
+    // Pass null for the first page, then page.getNextCursor() for each following page.
+    public Page<Customer, String> page(String afterCustomerId, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+
+        List<Customer> customers = new ArrayList<>();
+        boolean hasMore = false;
+
+        // We ask for one row more than the page size - if it comes back we know there is another page
+        String query = """
+                SELECT CustomerID, CompanyName, ContactName, ContactTitle, Address, City, Region, PostalCode, Country, Phone, Fax
+                FROM Customers
+                WHERE CustomerID > ?
+                ORDER BY CustomerID
+                LIMIT ?;
+                """;
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            // Every ID sorts after the empty string, so null means "start from the beginning"
+            statement.setString(1, afterCustomerId == null ? "" : afterCustomerId);
+            statement.setInt(2, limit + 1);
+
+            CustomerMapper mapper = new CustomerMapper();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    if (customers.size() == limit) {
+                        hasMore = true;
+                        break;
+                    }
+                    customers.add(mapper.mapRow(resultSet));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.out.println("There was an error retrieving the data. Please try again.");
+            e.printStackTrace();
+        }
+
+        String nextCursor = hasMore ? customers.get(customers.size() - 1).getCustomerID() : null;
+        return new Page<>(customers, nextCursor);
+    }
+
+    // METHOD 9: ADD MANY CUSTOMERS AT ONCE
+    // add() pays for one connection and one round trip per customer. This sends them in batches
+    // of batchSize rows, one transaction per batch. With rewriteBatchedStatements=true on the url
+    // MySQL Connector/J turns each batch into a single multi-row INSERT.
+    // Returns how many customers were saved - if a batch fails it is rolled back and we stop there.
+    public int addAll(Collection<Customer> customers) {
+
+        String query = """
+                INSERT INTO Customers (CustomerID, CompanyName, ContactName, ContactTitle, Address, City, Region, PostalCode, Country, Phone, Fax)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?);
+                """;
+
+        int saved = 0;
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+
+            try {
+                int pending = 0;
+                for (Customer customer : customers) {
+                    statement.setString(1, customer.getCustomerID());
+                    statement.setString(2, customer.getCompanyName());
+                    statement.setString(3, customer.getContactName());
+                    statement.setString(4, customer.getContactTitle());
+                    statement.setString(5, customer.getAddress());
+                    statement.setString(6, customer.getCity());
+                    statement.setString(7, customer.getRegion());
+                    statement.setString(8, customer.getPostalCode());
+                    statement.setString(9, customer.getCountry());
+                    statement.setString(10, customer.getPhone());
+                    statement.setString(11, customer.getFax());
+                    statement.addBatch();
+
+                    if (++pending == batchSize) {
+                        statement.executeBatch();
+                        connection.commit();
+                        saved += pending;
+                        pending = 0;
+                    }
+                }
+
+                // Whatever is left over after the last full batch
+                if (pending > 0) {
+                    statement.executeBatch();
+                    connection.commit();
+                    saved += pending;
+                }
+
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+
+        } catch (SQLException e) {
+            System.out.println("There was an error adding the customers. Please try again.");
+            e.printStackTrace();
+        }
+
+        return saved;
+    }
+
+    // METHOD 10: FIND MANY CUSTOMERS AT ONCE
+    // Calling find() in a loop means one connection and one query per ID (the "N+1" problem).
+    // This looks them all up with WHERE CustomerID IN (?, ?, ...), a few hundred IDs per query.
+    // The map only contains the customers that were found - missing IDs are simply left out.
+    // It is keyed by the IDs as the caller passed them: MySQL compares CustomerID without regard to
+    // case, so asking for "alfki" finds ALFKI and returns it under "alfki".
+    public Map<String, Customer> findAll(Collection<String> customerIds) {
+        Map<String, Customer> customers = new HashMap<>();
+
+        // Every spelling the caller used for each customer, by idKey()
+        Map<String, List<String>> requested = new HashMap<>();
+        for (String customerId : customerIds) {
+            if (customerId != null) {
+                List<String> spellings = requested.computeIfAbsent(idKey(customerId), key -> new ArrayList<>(1));
+                if (!spellings.contains(customerId)) {
+                    spellings.add(customerId);
+                }
+            }
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+
+            for (List<String> chunk : SqlUtils.chunkDistinct(customerIds)) {
+                String query = """
+                        SELECT CustomerID, CompanyName, ContactName, ContactTitle, Address, City, Region, PostalCode, Country, Phone, Fax
+                        FROM Customers
+                        WHERE CustomerID IN (%s);
+                        """.formatted(SqlUtils.placeholders(chunk.size()));
+
+                try (PreparedStatement statement = connection.prepareStatement(query)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        statement.setString(i + 1, chunk.get(i));
+                    }
+
+                    CustomerMapper mapper = new CustomerMapper();
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            Customer customer = mapper.mapRow(resultSet);
+                            List<String> spellings = requested.getOrDefault(idKey(customer.getCustomerID()), List.of());
+                            for (int i = 0; i < spellings.size(); i++) {
+                                // Each key gets its own object, like separate find() calls would
+                                customers.put(spellings.get(i), i == 0 ? customer : new Customer(customer));
+                            }
+                        }
+                    }
+                }
+            }
+
+        } catch (SQLException e) {
+            System.out.println("There was an error retrieving the data. Please try again.");
+            e.printStackTrace();
+        }
+
+        return customers;
+    }
+
+    // CustomerIDs compare case-insensitively in MySQL (the column's collation); two IDs name the
+    // same customer exactly when their keys are equal
+    static String idKey(String customerId) {
+        return customerId.toUpperCase(Locale.ROOT);
+    }
+
+    // METHOD 11: LIST CUSTOMERS BY ID AND NAME ONLY
+    // List screens only show the ID and the company name, but getAll() reads all 11 columns
+    // and builds a full Customer for every row. Selecting just the two columns we need means
+    // less data over the network, less work for the driver and much smaller objects in memory.
+    public List<CustomerSummary> getSummaries() {
+        List<CustomerSummary> summaries = new ArrayList<>();
+
+        String query = """
+                SELECT CustomerID, CompanyName
+                FROM Customers;
+                """;
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query);
+             ResultSet resultSet = statement.executeQuery()) {
+
+            while (resultSet.next()) {
+                summaries.add(new CustomerSummary(resultSet.getString(1), resultSet.getString(2)));
+            }
+
+        } catch (SQLException e) {
+            System.out.println("There was an error retrieving the data. Please try again.");
+            e.printStackTrace();
+        }
+
+        return summaries;
+    }
+
+    // METHOD 12: STREAM CUSTOMERS BY ID AND NAME ONLY
+    // getSummaries() for tables too big to hold in one list - same rules as stream()
+    public Stream<CustomerSummary> streamSummaries() {
+
+        String query = """
+                SELECT CustomerID, CompanyName
+                FROM Customers;
+                """;
+
+        return ResultSetStreams.stream(dataSource, query, fetchSize,
+                resultSet -> new CustomerSummary(resultSet.getString(1), resultSet.getString(2)));
+    }
+}
+// SUMMARY OF THIS CLASS (CRUD OPERATIONS):
+// This class provides 5 methods that cover all basic database operations:
+//
+// C - CREATE: add() creates a new customer, addAll() creates many in batches
+// R - READ:   getAll() reads all customers, find() reads one specific customer
+//             stream() and forEach() read all customers without holding them all in memory
+//             page() reads the customers one page at a time
+//             findAll() reads many specific customers in a few queries
+//             getSummaries() and streamSummaries() read just the ID and company name of every customer
+// U - UPDATE: update() modifies an existing customer
+// D - DELETE: delete() removes a customer
+//
+// These are called "CRUD operations" and are fundamental to almost every database application!
+// Think of this class as your customer database toolkit - everything you need to manage customers.
\ No newline at end of file
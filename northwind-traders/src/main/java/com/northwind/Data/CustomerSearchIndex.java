@@ -0,0 +1,393 @@
+package com.northwind.Data;
+
+import com.northwind.Model.Customer;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// In-memory search over CompanyName and ContactName for "find the customer" boxes.
+//
+//     CustomerSearchIndex index = CustomerSearchIndex.build(customerDao);
+//     List<Customer> hits = index.search("trujil", 10);
+//
+// Matching ignores case, accents and extra spaces. Queries of three or more characters match anywhere
+// in a name: every name is cut into overlapping three-letter pieces ("trigrams": "tru", "ruj", "uji", ...)
+// and each trigram keeps a sorted list of the customers that contain it. A query only has to intersect
+// the lists of its own trigrams and then double check the few customers left. Shorter queries match
+// the start of a word ("an" finds "Ana Trujillo" and "Antonio Moreno").
+//
+// Results are ranked: whole name > name starts with the query > a word starts with it > somewhere in
+// the middle, and a CompanyName match beats the same kind of ContactName match.
+//
+// Memory grows with the text indexed - one int per distinct trigram and word of each customer, plus a
+// copy of each Customer - not with the number of searches. Use IndexedCustomerDao to keep the index
+// up to date as customers are added, changed and deleted.
+public class CustomerSearchIndex {
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Customers are numbered ("documents"); numbers of removed customers are reused.
+    // Keyed by CustomerDao.idKey() because the database matches IDs without regard to case.
+    private final Map<String, Integer> docByCustomerId = new HashMap<>();
+    private Customer[] customers = new Customer[256];
+    private String[] companyNames = new String[256];
+    private String[] contactNames = new String[256];
+    private int[] freeDocs = new int[16];
+    private int freeCount;
+    private int nextDoc;
+
+    private final Map<Long, Postings> trigrams = new HashMap<>();
+    private final TreeMap<String, Postings> words = new TreeMap<>();
+
+    // Throws DataAccessException if the customers couldn't all be read, rather than returning an
+    // index that is quietly missing some of them
+    public static CustomerSearchIndex build(CustomerDao customerDao) {
+        CustomerSearchIndex index = new CustomerSearchIndex();
+        DaoCallStatus.begin();
+        customerDao.forEach(index::put);
+        // A query that couldn't start gives an empty stream; the error is only in DaoCallStatus
+        if (DaoCallStatus.lastCallFailed()) {
+            throw new DataAccessException("The customers could not be read", DaoCallStatus.lastFailure());
+        }
+        return index;
+    }
+
+    // Adds the customer, or replaces what was indexed for the same CustomerID
+    public void put(Customer customer) {
+        String company = normalize(customer.getCompanyName());
+        String contact = normalize(customer.getContactName());
+
+        lock.writeLock().lock();
+        try {
+            Integer existing = docByCustomerId.get(CustomerDao.idKey(customer.getCustomerID()));
+            int doc;
+            if (existing != null) {
+                doc = existing;
+                unindex(doc);
+            } else {
+                doc = newDoc();
+                docByCustomerId.put(CustomerDao.idKey(customer.getCustomerID()), doc);
+            }
+            customers[doc] = new Customer(customer);
+            companyNames[doc] = company;
+            contactNames[doc] = contact;
+            index(doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String customerId) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docByCustomerId.remove(CustomerDao.idKey(customerId));
+            if (doc == null) {
+                return;
+            }
+            unindex(doc);
+            customers[doc] = null;
+            companyNames[doc] = null;
+            contactNames[doc] = null;
+            if (freeCount == freeDocs.length) {
+                freeDocs = Arrays.copyOf(freeDocs, freeCount * 2);
+            }
+            freeDocs[freeCount++] = doc;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Best matches first, at most limit of them. Each Customer is a copy the caller may change.
+    public List<Customer> search(String query, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int[] candidates = normalized.length() >= 3 ? trigramCandidates(normalized) : wordPrefixCandidates(normalized);
+
+            // Keep only the best limit matches while scanning: the worst of them sits on top of the heap
+            Comparator<long[]> best = this::compareHits;
+            PriorityQueue<long[]> top = new PriorityQueue<>(Math.min(limit, candidates.length) + 1, best.reversed());
+            for (int doc : candidates) {
+                // Trigrams can all be present without the whole query being there - check the real text
+                int rank = Math.max(2 * rank(companyNames[doc], normalized) + 1, 2 * rank(contactNames[doc], normalized));
+                if (rank <= 1) {
+                    continue;
+                }
+                long[] hit = {rank, doc};
+                if (top.size() < limit) {
+                    top.add(hit);
+                } else if (best.compare(hit, top.peek()) < 0) {
+                    top.poll();
+                    top.add(hit);
+                }
+            }
+
+            List<long[]> ranked = new ArrayList<>(top);
+            ranked.sort(best);
+            List<Customer> result = new ArrayList<>(ranked.size());
+            for (long[] hit : ranked) {
+                result.add(new Customer(customers[(int) hit[1]]));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docByCustomerId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getTrigramCount() {
+        lock.readLock().lock();
+        try {
+            return trigrams.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getWordCount() {
+        lock.readLock().lock();
+        try {
+            return words.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Total entries in all trigram and word lists (each one is an int)
+    public long getPostingCount() {
+        lock.readLock().lock();
+        try {
+            long count = 0;
+            for (Postings postings : trigrams.values()) {
+                count += postings.size;
+            }
+            for (Postings postings : words.values()) {
+                count += postings.size;
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CustomerSearchIndex " +
+                " customers = " + size() + '\n' +
+                " trigrams = " + getTrigramCount() + '\n' +
+                " words = " + getWordCount() + '\n' +
+                " postings = " + getPostingCount() + '\n';
+    }
+
+    // Higher rank first; for the same kind of match the shorter company name is the closer match
+    private int compareHits(long[] a, long[] b) {
+        if (a[0] != b[0]) {
+            return Long.compare(b[0], a[0]);
+        }
+        int docA = (int) a[1];
+        int docB = (int) b[1];
+        int byLength = Integer.compare(companyNames[docA].length(), companyNames[docB].length());
+        return byLength != 0 ? byLength : customers[docA].getCustomerID().compareTo(customers[docB].getCustomerID());
+    }
+
+    // Lower case, no accents ("é" -> "e"), single spaces
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String plain = ACCENTS.matcher(decomposed).replaceAll("");
+        return SPACES.matcher(plain.toLowerCase(Locale.ROOT)).replaceAll(" ").strip();
+    }
+
+    // 4 = the whole name, 3 = the name starts with the query, 2 = a word starts with it, 1 = anywhere, 0 = no match
+    private static int rank(String name, String query) {
+        if (name.equals(query)) {
+            return 4;
+        }
+        if (name.startsWith(query)) {
+            return 3;
+        }
+        int at = name.indexOf(query);
+        if (at < 0) {
+            return 0;
+        }
+        while (at >= 0) {
+            if (name.charAt(at - 1) == ' ') {
+                return 2;
+            }
+            at = name.indexOf(query, at + 1);
+        }
+        return 1;
+    }
+
+    private int[] trigramCandidates(String query) {
+        Set<Long> keys = trigramsOf(query);
+        Postings[] lists = new Postings[keys.size()];
+        int i = 0;
+        for (Long key : keys) {
+            Postings postings = trigrams.get(key);
+            if (postings == null) {
+                return new int[0];
+            }
+            lists[i++] = postings;
+        }
+
+        // Start from the rarest trigram so the intersection shrinks as fast as possible
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        int[] result = Arrays.copyOf(lists[0].docs, lists[0].size);
+        int size = result.length;
+        for (int l = 1; l < lists.length && size > 0; l++) {
+            size = lists[l].retainIn(result, size);
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private int[] wordPrefixCandidates(String prefix) {
+        SortedMap<String, Postings> matching = words.subMap(prefix, prefix + Character.MAX_VALUE);
+        BitSet docs = new BitSet(nextDoc);
+        for (Postings postings : matching.values()) {
+            for (int i = 0; i < postings.size; i++) {
+                docs.set(postings.docs[i]);
+            }
+        }
+        return docs.stream().toArray();
+    }
+
+    private void index(int doc) {
+        for (Long key : trigramsOf(companyNames[doc], contactNames[doc])) {
+            trigrams.computeIfAbsent(key, k -> new Postings()).add(doc);
+        }
+        for (String word : wordsOf(companyNames[doc], contactNames[doc])) {
+            words.computeIfAbsent(word, k -> new Postings()).add(doc);
+        }
+    }
+
+    private void unindex(int doc) {
+        for (Long key : trigramsOf(companyNames[doc], contactNames[doc])) {
+            Postings postings = trigrams.get(key);
+            if (postings != null && postings.remove(doc) && postings.size == 0) {
+                trigrams.remove(key);
+            }
+        }
+        for (String word : wordsOf(companyNames[doc], contactNames[doc])) {
+            Postings postings = words.get(word);
+            if (postings != null && postings.remove(doc) && postings.size == 0) {
+                words.remove(word);
+            }
+        }
+    }
+
+    private int newDoc() {
+        if (freeCount > 0) {
+            return freeDocs[--freeCount];
+        }
+        if (nextDoc == customers.length) {
+            int capacity = customers.length * 2;
+            customers = Arrays.copyOf(customers, capacity);
+            companyNames = Arrays.copyOf(companyNames, capacity);
+            contactNames = Arrays.copyOf(contactNames, capacity);
+        }
+        return nextDoc++;
+    }
+
+    // Three chars packed into one long: 16 bits each
+    private static Set<Long> trigramsOf(String... texts) {
+        Set<Long> keys = new HashSet<>();
+        for (String text : texts) {
+            for (int i = 0; i + 3 <= text.length(); i++) {
+                keys.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+            }
+        }
+        return keys;
+    }
+
+    private static Set<String> wordsOf(String... texts) {
+        Set<String> result = new HashSet<>();
+        for (String text : texts) {
+            if (text.isEmpty()) {
+                continue;
+            }
+            result.addAll(Arrays.asList(text.split(" ")));
+        }
+        return result;
+    }
+
+    // A sorted list of document numbers without duplicates
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            int at = Arrays.binarySearch(docs, 0, size, doc);
+            if (at >= 0) {
+                return;
+            }
+            at = -at - 1;
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            System.arraycopy(docs, at, docs, at + 1, size - at);
+            docs[at] = doc;
+            size++;
+        }
+
+        boolean remove(int doc) {
+            int at = Arrays.binarySearch(docs, 0, size, doc);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(docs, at + 1, docs, at, size - at - 1);
+            size--;
+            return true;
+        }
+
+        // Keeps only the first size entries of candidates (sorted) that are also in this list;
+        // returns how many are left
+        int retainIn(int[] candidates, int size) {
+            int kept = 0;
+            int mine = 0;
+            for (int i = 0; i < size && mine < this.size; i++) {
+                int candidate = candidates[i];
+                while (mine < this.size && docs[mine] < candidate) {
+                    mine++;
+                }
+                if (mine < this.size && docs[mine] == candidate) {
+                    candidates[kept++] = candidate;
+                }
+            }
+            return kept;
+        }
+    }
+}
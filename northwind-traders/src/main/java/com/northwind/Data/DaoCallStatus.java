@@ -0,0 +1,80 @@
+package com.northwind.Data;
+
+import java.sql.SQLException;
+
+// What the calling thread's last DAO call ran into.
+// The DAOs print and swallow their SQLExceptions and return null, false or an empty list, which on
+// its own reads the same as "not found". The wrapping DataSources note the error here instead:
+//
+//     Customer customer = customerDao.find("ALFKI");
+//     if (customer == null && DaoCallStatus.lastCallFailed()) {
+//         if (DaoCallStatus.lastFailure() instanceof BulkheadFullException) {
+//             // shed - too many customer calls running
+//         } else {
+//             // the database is down, slow or refused the statement
+//         }
+//     }
+//
+// Every layer that hands out connections (BulkheadDataSource, RoutingDataSource, ResilientDataSource)
+// starts a new call when the DAO asks for one, and the layers that watch statements record what
+// failed. The DAO should talk to one of those layers directly (in Application the bulkheads are on
+// top) - errors that only a plain pool sees aren't recorded.
+public final class DaoCallStatus {
+    private static final ThreadLocal<Call> current = ThreadLocal.withInitial(Call::new);
+
+    private DaoCallStatus() {
+    }
+
+    // True if the calling thread's last DAO call failed (after any retries)
+    public static boolean lastCallFailed() {
+        return current.get().failure != null;
+    }
+
+    // The error the last call ended with, or null if it worked:
+    // BulkheadFullException (shed), DeadlineExceededException (too slow), or whatever the database said
+    public static SQLException lastFailure() {
+        return current.get().failure;
+    }
+
+    // A new DAO call starts on this thread
+    static void begin() {
+        current.get().failure = null;
+    }
+
+    // The outermost layer records last, so its exception (the one the DAO saw) is the one kept
+    static void failed(SQLException e) {
+        current.get().failure = e;
+    }
+
+    // The call on this thread has to be done by deadline (System.nanoTime()); set by BulkheadDataSource
+    static void deadline(long deadline) {
+        Call call = current.get();
+        call.deadline = deadline;
+        call.hasDeadline = true;
+    }
+
+    static void noDeadline() {
+        current.get().hasDeadline = false;
+    }
+
+    // Clears the deadline if it is still the one given (a later call may have set its own)
+    static void endDeadline(long deadline) {
+        Call call = current.get();
+        if (call.hasDeadline && call.deadline == deadline) {
+            call.hasDeadline = false;
+        }
+    }
+
+    // Time left for the current call; Long.MAX_VALUE when it has no deadline. Lower layers use it
+    // so a retry never runs past the deadline of the layer above.
+    static long remainingNanos() {
+        Call call = current.get();
+        return call.hasDeadline ? call.deadline - System.nanoTime() : Long.MAX_VALUE;
+    }
+
+    private static final class Call {
+        private SQLException failure;
+        private long deadline;
+        private boolean hasDeadline;
+    }
+}
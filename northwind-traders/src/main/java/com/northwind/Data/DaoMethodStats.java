@@ -0,0 +1,128 @@
+package com.northwind.Data;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Timings for one DAO method (for example "CustomerDao.find"):
+// - acquire: waiting for dataSource.getConnection()
+// - execute: executeQuery / executeUpdate / executeBatch
+// - mapping: from the query returning until its ResultSet is closed (reading and mapping the rows)
+public class DaoMethodStats implements DaoMethodStatsMXBean {
+    private final String method;
+    private final LatencyHistogram acquire = new LatencyHistogram();
+    private final LatencyHistogram execute = new LatencyHistogram();
+    private final LatencyHistogram mapping = new LatencyHistogram();
+    private final LongAdder rows = new LongAdder();
+
+    DaoMethodStats(String method) {
+        this.method = method;
+    }
+
+    void recordAcquire(long nanos) {
+        acquire.record(nanos);
+    }
+
+    void recordExecute(long nanos) {
+        execute.record(nanos);
+    }
+
+    void recordMapping(long nanos, long rowCount) {
+        mapping.record(nanos);
+        rows.add(rowCount);
+    }
+
+    // Rows changed by an INSERT/UPDATE/DELETE
+    void recordRows(long rowCount) {
+        rows.add(rowCount);
+    }
+
+    public LatencyHistogram getAcquire() {
+        return acquire;
+    }
+
+    public LatencyHistogram getExecute() {
+        return execute;
+    }
+
+    public LatencyHistogram getMapping() {
+        return mapping;
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    // One connection checkout per DAO call
+    @Override
+    public long getCalls() {
+        return acquire.getCount();
+    }
+
+    @Override
+    public long getRows() {
+        return rows.sum();
+    }
+
+    @Override
+    public double getAcquireP50Micros() {
+        return acquire.getPercentileMicros(50);
+    }
+
+    @Override
+    public double getAcquireP99Micros() {
+        return acquire.getPercentileMicros(99);
+    }
+
+    @Override
+    public double getAcquireP999Micros() {
+        return acquire.getPercentileMicros(99.9);
+    }
+
+    @Override
+    public double getExecuteP50Micros() {
+        return execute.getPercentileMicros(50);
+    }
+
+    @Override
+    public double getExecuteP99Micros() {
+        return execute.getPercentileMicros(99);
+    }
+
+    @Override
+    public double getExecuteP999Micros() {
+        return execute.getPercentileMicros(99.9);
+    }
+
+    @Override
+    public double getMappingP50Micros() {
+        return mapping.getPercentileMicros(50);
+    }
+
+    @Override
+    public double getMappingP99Micros() {
+        return mapping.getPercentileMicros(99);
+    }
+
+    @Override
+    public double getMappingP999Micros() {
+        return mapping.getPercentileMicros(99.9);
+    }
+
+    @Override
+    public void reset() {
+        acquire.reset();
+        execute.reset();
+        mapping.reset();
+        rows.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-32s calls=%d rows=%d acquire p50/p99/p999=%.1f/%.1f/%.1fus"
+                        + " execute p50/p99/p999=%.1f/%.1f/%.1fus mapping p50/p99/p999=%.1f/%.1f/%.1fus",
+                method, getCalls(), getRows(),
+                getAcquireP50Micros(), getAcquireP99Micros(), getAcquireP999Micros(),
+                getExecuteP50Micros(), getExecuteP99Micros(), getExecuteP999Micros(),
+                getMappingP50Micros(), getMappingP99Micros(), getMappingP999Micros());
+    }
+}
@@ -0,0 +1,30 @@
+package com.northwind.Data;
+
+// What JMX (JConsole, VisualVM, ...) shows for one DAO method. All times are in microseconds.
+public interface DaoMethodStatsMXBean {
+    String getMethod();
+
+    long getCalls();
+
+    long getRows();
+
+    double getAcquireP50Micros();
+
+    double getAcquireP99Micros();
+
+    double getAcquireP999Micros();
+
+    double getExecuteP50Micros();
+
+    double getExecuteP99Micros();
+
+    double getExecuteP999Micros();
+
+    double getMappingP50Micros();
+
+    double getMappingP99Micros();
+
+    double getMappingP999Micros();
+
+    void reset();
+}
@@ -0,0 +1,109 @@
+package com.northwind.Data;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Holds one DaoMethodStats per DAO method and publishes them as JMX MBeans under "com.northwind".
+// Hand it to an InstrumentedDataSource to start collecting. While disabled the data source
+// hands out plain pool connections, so turning metrics off costs one volatile read per call.
+public class DaoMetrics implements DaoMetricsMXBean {
+    private static final String DOMAIN = "com.northwind";
+
+    private final ConcurrentMap<String, DaoMethodStats> methods = new ConcurrentHashMap<>();
+    private volatile boolean enabled;
+    private volatile MBeanServer mBeanServer;
+
+    public DaoMetrics(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public DaoMethodStats statsFor(String method) {
+        DaoMethodStats stats = methods.get(method);
+        if (stats != null) {
+            return stats;
+        }
+        DaoMethodStats created = new DaoMethodStats(method);
+        stats = methods.putIfAbsent(method, created);
+        if (stats == null) {
+            register(created, "DaoMethod", method);
+            return created;
+        }
+        return stats;
+    }
+
+    public Map<String, DaoMethodStats> getStats() {
+        return Map.copyOf(methods);
+    }
+
+    @Override
+    public String[] getMethods() {
+        List<String> names = new ArrayList<>(methods.keySet());
+        names.sort(null);
+        return names.toArray(new String[0]);
+    }
+
+    @Override
+    public void reset() {
+        methods.values().forEach(DaoMethodStats::reset);
+    }
+
+    // Publishes this object and every method's stats (including ones created later) to the platform MBean server
+    public void registerMBeans() {
+        mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        register(this, "DaoMetrics", null);
+        methods.values().forEach(stats -> register(stats, "DaoMethod", stats.getMethod()));
+    }
+
+    // Publishes the active/idle/waiters gauges of a pool under the given name
+    public void registerPool(String name, BasicDataSource pool) {
+        if (mBeanServer == null) {
+            registerMBeans();
+        }
+        register(new ConnectionPoolStats(pool), "ConnectionPool", name);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("DaoMetrics\n");
+        for (String method : getMethods()) {
+            builder.append(' ').append(methods.get(method)).append('\n');
+        }
+        return builder.toString();
+    }
+
+    private void register(Object mBean, String type, String name) {
+        MBeanServer server = mBeanServer;
+        if (server == null) {
+            return;
+        }
+        try {
+            ObjectName objectName = new ObjectName(DOMAIN + ":type=" + type
+                    + (name == null ? "" : ",name=" + ObjectName.quote(name)));
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(mBean, objectName);
+            }
+        } catch (JMException e) {
+            System.out.println("There was an error publishing " + type + " metrics over JMX.");
+            e.printStackTrace();
+        }
+    }
+}
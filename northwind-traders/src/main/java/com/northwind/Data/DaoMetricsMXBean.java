@@ -0,0 +1,12 @@
+package com.northwind.Data;
+
+// Switches DAO instrumentation on and off at runtime over JMX.
+public interface DaoMetricsMXBean {
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    String[] getMethods();
+
+    void reset();
+}
@@ -0,0 +1,18 @@
+package com.northwind.Data;
+
+import java.sql.SQLException;
+
+// Thrown out of a DAO stream (stream(), forEach(), streamSummaries()) when reading the rows fails
+// part way through. Stream consumers can't throw SQLException, and ending the stream quietly would
+// make a cut-off scan look like a complete one.
+public class DataAccessException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public DataAccessException(String message, SQLException cause) {
+        super(message, cause);
+    }
+
+    public SQLException getSQLException() {
+        return (SQLException) getCause();
+    }
+}
@@ -0,0 +1,13 @@
+package com.northwind.Data;
+
+import java.sql.SQLTimeoutException;
+
+// Thrown when a DAO call runs past its bulkhead's call timeout: either the statement was about to
+// start with no time left, or it was cancelled while still running.
+public class DeadlineExceededException extends SQLTimeoutException {
+    private static final long serialVersionUID = 1L;
+
+    public DeadlineExceededException(String bulkhead, long timeoutMillis, Throwable cause) {
+        super("Call in bulkhead " + bulkhead + " ran past its " + timeoutMillis + " ms deadline", "HYT00", cause);
+    }
+}
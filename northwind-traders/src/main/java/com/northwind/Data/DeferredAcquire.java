@@ -0,0 +1,50 @@
+package com.northwind.Data;
+
+import java.util.function.LongConsumer;
+
+// Lets InstrumentedDataSource's "time to get a connection" follow the connection to where it is
+// really opened. RoutingDataSource hands out a connection straight away and only takes one from a
+// pool when the DAO prepares its first statement, so timing its getConnection() would measure
+// nothing and the wait for the pool would be lost.
+//
+// InstrumentedDataSource calls expect() with its recorder before asking the layers below for a
+// connection; a layer that connects later takes the recorder over (on the same thread, during that
+// getConnection()) and reports the time itself. finish() then tells InstrumentedDataSource whether
+// it still has to record the time on its own.
+final class DeferredAcquire {
+    private static final ThreadLocal<Slot> current = ThreadLocal.withInitial(Slot::new);
+
+    private DeferredAcquire() {
+    }
+
+    static void expect(LongConsumer recorder) {
+        Slot slot = current.get();
+        slot.recorder = recorder;
+        slot.takenOver = false;
+    }
+
+    // The recorder waiting for this getConnection(), or null if nobody above is timing it
+    static LongConsumer takeOver() {
+        Slot slot = current.get();
+        LongConsumer recorder = slot.recorder;
+        if (recorder != null) {
+            slot.recorder = null;
+            slot.takenOver = true;
+        }
+        return recorder;
+    }
+
+    // True if a layer below took the measurement over; clears the slot either way
+    static boolean finish() {
+        Slot slot = current.get();
+        boolean takenOver = slot.takenOver;
+        slot.recorder = null;
+        slot.takenOver = false;
+        return takenOver;
+    }
+
+    private static final class Slot {
+        private LongConsumer recorder;
+        private boolean takenOver;
+    }
+}
@@ -0,0 +1,9 @@
+package com.northwind.Data;
+
+// File formats the BulkExporter can write.
+public enum ExportFormat {
+    // Comma separated, one header line, RFC 4180 quoting
+    CSV,
+    // One JSON object per line ("newline delimited JSON")
+    NDJSON
+}
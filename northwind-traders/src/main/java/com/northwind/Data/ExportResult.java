@@ -0,0 +1,57 @@
+package com.northwind.Data;
+
+import java.nio.file.Path;
+
+// What one BulkExporter run did: how many rows, how many bytes, and how fast.
+public class ExportResult {
+    private final Path file;
+    private final long rows;
+    private final long bytesEncoded;
+    private final long bytesWritten;
+    private final long elapsedNanos;
+
+    public ExportResult(Path file, long rows, long bytesEncoded, long bytesWritten, long elapsedNanos) {
+        this.file = file;
+        this.rows = rows;
+        this.bytesEncoded = bytesEncoded;
+        this.bytesWritten = bytesWritten;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    // Size of the CSV/NDJSON text before compression
+    public long getBytesEncoded() {
+        return bytesEncoded;
+    }
+
+    // Size of the file on disk (smaller than bytesEncoded when gzipped)
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : rows * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "Export " +
+                " file = " + file + '\n' +
+                " rows = " + rows + '\n' +
+                " bytesEncoded = " + bytesEncoded + '\n' +
+                " bytesWritten = " + bytesWritten + '\n' +
+                " elapsed = " + String.format("%.1f ms", elapsedNanos / 1e6) + '\n' +
+                " rowsPerSecond = " + String.format("%.0f", getRowsPerSecond()) + '\n';
+    }
+}
@@ -0,0 +1,87 @@
+package com.northwind.Data;
+
+import java.nio.file.Path;
+import java.util.List;
+
+// What one ProductImporter run did. Rows that could not be imported are listed by line number
+// (up to the importer's maxReportedErrors; rowsFailed always has the full count).
+public class ImportResult {
+    private final Path file;
+    private final long rowsRead;
+    private final long rowsImported;
+    private final long rowsFailed;
+    private final List<RowError> errors;
+    private final long elapsedNanos;
+
+    public ImportResult(Path file, long rowsRead, long rowsImported, long rowsFailed, List<RowError> errors, long elapsedNanos) {
+        this.file = file;
+        this.rowsRead = rowsRead;
+        this.rowsImported = rowsImported;
+        this.rowsFailed = rowsFailed;
+        this.errors = List.copyOf(errors);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public long getRowsFailed() {
+        return rowsFailed;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : rowsImported * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "Import " +
+                " file = " + file + '\n' +
+                " rowsRead = " + rowsRead + '\n' +
+                " rowsImported = " + rowsImported + '\n' +
+                " rowsFailed = " + rowsFailed + '\n' +
+                " elapsed = " + String.format("%.1f ms", elapsedNanos / 1e6) + '\n' +
+                " rowsPerSecond = " + String.format("%.0f", getRowsPerSecond()) + '\n';
+    }
+
+    // One line of the input file that was not imported, and why
+    public static class RowError {
+        private final long line;
+        private final String message;
+
+        public RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "line " + line + ": " + message;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.northwind.Data;
+
+import com.northwind.Model.Customer;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+// A CustomerDao with a CustomerSearchIndex next to it, for searching by partial company or contact name.
+// The index is loaded on the first search (or by rebuild()). add/addAll/update/delete made through
+// this DAO update it one customer at a time: after the write the customer is read back, so the
+// index holds what the database actually stored (a failed write leaves it unchanged).
+// Changes made by other processes show up after rebuild().
+// An index is only kept once every customer has been read: if loading it fails, search() prints the
+// error and returns an empty list (DaoCallStatus has the reason) and the next search tries again.
+// Inside a TransactionalDataSource unit of work those updates (and rebuild()) wait until it commits,
+// and a search there runs against an index built just for it from what the unit of work sees -
+// a full read of the table, so keep searches out of transactions where possible.
+public class IndexedCustomerDao extends CustomerDao {
+    private final TransactionalDataSource transactions;
+    private volatile CustomerSearchIndex index;
+
+    public IndexedCustomerDao(DataSource dataSource) {
+        super(dataSource);
+        this.transactions = TransactionalDataSource.find(dataSource);
+    }
+
+    public List<Customer> search(String query, int limit) {
+        CustomerSearchIndex current;
+        try {
+            current = index();
+        } catch (DataAccessException e) {
+            System.out.println("There was an error loading the customer search index. Please try again.");
+            e.printStackTrace();
+            return List.of();
+        }
+        return current.search(query, limit);
+    }
+
+    // Reads every customer again and swaps in a fresh index.
+    // Returns false (and keeps the old index) if the customers could not all be read.
+    // Inside a unit of work the rebuild is only scheduled for after the commit, and this returns true.
+    public boolean rebuild() {
+        if (inTransaction()) {
+            transactions.afterCommit(this::rebuild);
+            return true;
+        }
+        try {
+            index = CustomerSearchIndex.build(this);
+            return true;
+        } catch (DataAccessException e) {
+            System.out.println("There was an error rebuilding the customer search index. Please try again.");
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // Loads the index if needed; throws DataAccessException if that fails
+    public CustomerSearchIndex getIndex() {
+        return index();
+    }
+
+    @Override
+    public Customer add(Customer customer) {
+        Customer added = super.add(customer);
+        refresh(customer.getCustomerID());
+        return added;
+    }
+
+    @Override
+    public int addAll(Collection<Customer> customers) {
+        int saved = super.addAll(customers);
+        List<String> customerIds = new ArrayList<>(customers.size());
+        for (Customer customer : customers) {
+            customerIds.add(customer.getCustomerID());
+        }
+        afterCommit(() -> {
+            CustomerSearchIndex current = index;
+            if (current != null) {
+                Map<String, Customer> stored = super.findAll(customerIds);
+                stored.values().forEach(current::put);
+            }
+        });
+        return saved;
+    }
+
+    @Override
+    public void update(Customer customer) {
+        super.update(customer);
+        refresh(customer.getCustomerID());
+    }
+
+    @Override
+    public void delete(String customerId) {
+        super.delete(customerId);
+        refresh(customerId);
+    }
+
+    private CustomerSearchIndex index() {
+        if (inTransaction()) {
+            // Built from uncommitted rows, so never kept
+            return CustomerSearchIndex.build(this);
+        }
+        CustomerSearchIndex current = index;
+        if (current == null) {
+            synchronized (this) {
+                current = index;
+                if (current == null) {
+                    // Throws (and keeps index null) if the build couldn't read every customer
+                    current = CustomerSearchIndex.build(this);
+                    index = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    // Makes the index match the database for one customer.
+    // If it can't be read back the entry is left as it was; find() returning null only means
+    // "deleted" when the read itself worked.
+    private void refresh(String customerId) {
+        afterCommit(() -> {
+            CustomerSearchIndex current = index;
+            if (current == null) {
+                return;
+            }
+            DaoCallStatus.begin();
+            Customer stored = super.find(customerId);
+            if (DaoCallStatus.lastCallFailed()) {
+                return;
+            }
+            if (stored == null) {
+                current.remove(customerId);
+            } else {
+                current.put(stored);
+            }
+        });
+    }
+
+    private boolean inTransaction() {
+        return transactions != null && transactions.isInTransaction();
+    }
+
+    // Runs action now, or inside a unit of work once it has committed
+    private void afterCommit(Runnable action) {
+        if (transactions == null) {
+            action.run();
+        } else {
+            transactions.afterCommit(action);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.northwind.Data;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Wraps the pool and times every DAO call into DaoMetrics:
+// how long getConnection() took, how long each statement ran, and how long it took to read
+// (and map) the rows, plus the number of rows. The DAO method is found from the call stack
+// once per connection, so the DAO code itself doesn't change.
+// Behind a RoutingDataSource the pool is only asked for a connection at the DAO's first statement;
+// the router times that and reports it here as the acquire time (see DeferredAcquire).
+public class InstrumentedDataSource extends DelegatingDataSource {
+    private final DaoMetrics metrics;
+
+    public InstrumentedDataSource(DataSource delegate, DaoMetrics metrics) {
+        super(delegate);
+        this.metrics = metrics;
+    }
+
+    public DaoMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!metrics.isEnabled()) {
+            return delegate.getConnection();
+        }
+
+        DaoMethodStats stats = metrics.statsFor(JdbcProxies.callingDaoMethod());
+        long start = System.nanoTime();
+        Connection connection;
+        boolean deferred;
+        DeferredAcquire.expect(stats::recordAcquire);
+        try {
+            connection = delegate.getConnection();
+        } finally {
+            deferred = DeferredAcquire.finish();
+        }
+        if (!deferred) {
+            stats.recordAcquire(System.nanoTime() - start);
+        }
+
+        return JdbcProxies.wrap(Connection.class, connection, (target, method, args) -> {
+            Object result = JdbcProxies.invoke(target, method, args);
+            if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                return wrapStatement(statement, stats);
+            }
+            return result;
+        });
+    }
+
+    private static PreparedStatement wrapStatement(PreparedStatement statement, DaoMethodStats stats) {
+        return JdbcProxies.wrap(PreparedStatement.class, statement, (target, method, args) -> {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                return JdbcProxies.invoke(target, method, args);
+            }
+
+            long start = System.nanoTime();
+            Object result = JdbcProxies.invoke(target, method, args);
+            long executed = System.nanoTime();
+            stats.recordExecute(executed - start);
+
+            if (result instanceof ResultSet resultSet) {
+                return wrapResultSet(resultSet, stats, executed);
+            }
+            if (result instanceof Integer count) {
+                stats.recordRows(count);
+            } else if (result instanceof Long count) {
+                stats.recordRows(count);
+            } else if (result instanceof int[] counts) {
+                // Rewritten batches report SUCCESS_NO_INFO (-2) instead of a count - count those as one row
+                long changed = 0;
+                for (int count : counts) {
+                    changed += count >= 0 ? count : 1;
+                }
+                stats.recordRows(changed);
+            }
+            return result;
+        });
+    }
+
+    private static ResultSet wrapResultSet(ResultSet resultSet, DaoMethodStats stats, long openedAt) {
+        long[] rows = new long[1];
+        boolean[] closed = new boolean[1];
+
+        return JdbcProxies.wrap(ResultSet.class, resultSet, (Object target, Method method, Object[] args) -> {
+            Object result = JdbcProxies.invoke(target, method, args);
+            String name = method.getName();
+            if (name.equals("next") && Boolean.TRUE.equals(result)) {
+                rows[0]++;
+            } else if (name.equals("close") && !closed[0]) {
+                closed[0] = true;
+                stats.recordMapping(System.nanoTime() - openedAt, rows[0]);
+            }
+            return result;
+        });
+    }
+}
@@ -0,0 +1,50 @@
+package com.northwind.Data;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+// Helpers for wrapping JDBC objects (Connection, PreparedStatement, ResultSet) in dynamic proxies.
+// The wrapping DataSources use these to watch or change a few calls and pass the rest straight through.
+final class JdbcProxies {
+
+    @FunctionalInterface
+    interface Interceptor {
+        Object invoke(Object target, Method method, Object[] args) throws Throwable;
+    }
+
+    private JdbcProxies() {
+    }
+
+    static <T> T wrap(Class<T> type, T target, Interceptor interceptor) {
+        Object proxy = Proxy.newProxyInstance(
+                JdbcProxies.class.getClassLoader(),
+                new Class<?>[]{type},
+                (self, method, args) -> interceptor.invoke(target, method, args));
+        return type.cast(proxy);
+    }
+
+    // Calls the real method and rethrows whatever it threw (not the reflection wrapper)
+    static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // "CustomerDao.find" for the DAO method that is asking for the connection, found by walking the stack.
+    // Only used on the slower, opted-in paths (metrics, slow query log) - never on every call.
+    static String callingDaoMethod() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith("com.northwind.Data.")
+                        && frame.getClassName().endsWith("Dao"))
+                .findFirst()
+                .map(frame -> simpleName(frame.getClassName()) + "." + frame.getMethodName())
+                .orElse("unknown"));
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+}
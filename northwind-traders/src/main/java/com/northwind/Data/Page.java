@@ -0,0 +1,35 @@
+package com.northwind.Data;
+
+import java.util.List;
+
+// One page of results from a keyset (seek) query.
+// nextCursor is the primary key of the last row on this page - pass it back to page(...)
+// to get the following page. It is null when there are no more rows.
+public class Page<T, K> {
+    private final List<T> items;
+    private final K nextCursor;
+
+    public Page(List<T> items, K nextCursor) {
+        this.items = List.copyOf(items);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public K getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    @Override
+    public String toString() {
+        return "Page " +
+                " size = " + items.size() + '\n' +
+                " nextCursor = " + nextCursor + '\n';
+    }
+}
@@ -0,0 +1,367 @@
+package com.northwind.Data;
+
+import com.northwind.Model.Product;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// A read-only, column-by-column copy of the Products table for dashboards and reports.
+// Instead of one Product object per row, every column is one primitive array (unitPrice[i],
+// unitsInStock[i], ... all describe the same product i). A scan like "stock value per category"
+// then walks a few tightly packed arrays front to back - no objects, no boxing, nothing for the GC.
+// Product names are dictionary encoded: each distinct name is stored once and rows hold its code.
+// SupplierID, CategoryID and ReorderLevel may be NULL; those rows hold NULL_VALUE instead of a number.
+//
+//     ProductCatalog catalog = new ProductCatalog(dataSource);
+//     ProductCatalog.Snapshot products = catalog.snapshot();
+//     Map<Integer, Double> value = products.inventoryValueByCategory();
+//
+// refresh() reloads the table and swaps the new snapshot in as a whole; a Snapshot never changes,
+// so a report that runs several scans on one Snapshot always sees the same data.
+// Inside a TransactionalDataSource unit of work snapshot() reads the table through the unit of work
+// (the shared snapshot doesn't have its writes yet) without keeping the result, and refresh() waits
+// until the unit of work has committed.
+public class ProductCatalog {
+    // What supplierId(), categoryId() and reorderLevel() return for a NULL column.
+    // No real ID or level is this small, and no stock count is ever at or below it.
+    public static final int NULL_VALUE = Integer.MIN_VALUE;
+
+    private final DataSource dataSource;
+    private final TransactionalDataSource transactions;
+    private int fetchSize = 500;
+
+    // null until the first successful load
+    private volatile Snapshot snapshot;
+
+    // Reloads run one at a time so an older read of the table can never replace a newer one
+    private final Object refreshLock = new Object();
+
+    public ProductCatalog(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.transactions = TransactionalDataSource.find(dataSource);
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("fetchSize must be positive");
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    // The current snapshot, loading it first if this is the first call.
+    // Throws IllegalStateException if nothing could ever be loaded.
+    public Snapshot snapshot() {
+        if (inTransaction()) {
+            // Built from uncommitted rows, so never kept
+            try {
+                return read();
+            } catch (SQLException e) {
+                System.out.println("There was an error loading the product catalog. Please try again.");
+                e.printStackTrace();
+                throw new IllegalStateException("The product catalog could not be loaded", e);
+            }
+        }
+        Snapshot current = snapshot;
+        if (current == null && refresh()) {
+            current = snapshot;
+        }
+        if (current == null) {
+            throw new IllegalStateException("The product catalog could not be loaded");
+        }
+        return current;
+    }
+
+    // Reloads the table and swaps the new snapshot in.
+    // Returns false (and keeps serving the old snapshot) if the database could not be read.
+    // Inside a unit of work the reload is only scheduled for after the commit, and this returns true.
+    public boolean refresh() {
+        if (inTransaction()) {
+            transactions.afterCommit(this::refresh);
+            return true;
+        }
+
+        synchronized (refreshLock) {
+            try {
+                snapshot = read();
+                return true;
+
+            } catch (SQLException e) {
+                System.out.println("There was an error refreshing the product catalog. Please try again.");
+                e.printStackTrace();
+                return false;
+            }
+        }
+    }
+
+    private Snapshot read() throws SQLException {
+        String query = """
+                SELECT ProductID,ProductName,SupplierID,CategoryID,UnitPrice,UnitsInStock,UnitsOnOrder,ReorderLevel,Discontinued
+                FROM Products
+                ORDER BY ProductID;
+                """;
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            statement.setFetchSize(fetchSize);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return load(resultSet);
+            }
+        }
+    }
+
+    private boolean inTransaction() {
+        return transactions != null && transactions.isInTransaction();
+    }
+
+    // Reads the rows straight into the column arrays, growing them as needed
+    private static Snapshot load(ResultSet resultSet) throws SQLException {
+        int capacity = 1024;
+        int[] productId = new int[capacity];
+        int[] nameCode = new int[capacity];
+        int[] supplierId = new int[capacity];
+        int[] categoryId = new int[capacity];
+        double[] unitPrice = new double[capacity];
+        int[] unitsInStock = new int[capacity];
+        int[] unitsOnOrder = new int[capacity];
+        int[] reorderLevel = new int[capacity];
+        int[] discontinued = new int[capacity];
+
+        Map<String, Integer> codes = new HashMap<>();
+        String[] names = new String[256];
+
+        int size = 0;
+        while (resultSet.next()) {
+            if (size == capacity) {
+                capacity *= 2;
+                productId = Arrays.copyOf(productId, capacity);
+                nameCode = Arrays.copyOf(nameCode, capacity);
+                supplierId = Arrays.copyOf(supplierId, capacity);
+                categoryId = Arrays.copyOf(categoryId, capacity);
+                unitPrice = Arrays.copyOf(unitPrice, capacity);
+                unitsInStock = Arrays.copyOf(unitsInStock, capacity);
+                unitsOnOrder = Arrays.copyOf(unitsOnOrder, capacity);
+                reorderLevel = Arrays.copyOf(reorderLevel, capacity);
+                discontinued = Arrays.copyOf(discontinued, capacity);
+            }
+
+            String name = resultSet.getString(2);
+            Integer code = codes.get(name);
+            if (code == null) {
+                code = codes.size();
+                codes.put(name, code);
+                if (code == names.length) {
+                    names = Arrays.copyOf(names, names.length * 2);
+                }
+                names[code] = name;
+            }
+
+            productId[size] = resultSet.getInt(1);
+            nameCode[size] = code;
+            supplierId[size] = nullable(resultSet, 3);
+            categoryId[size] = nullable(resultSet, 4);
+            unitPrice[size] = resultSet.getDouble(5);
+            unitsInStock[size] = resultSet.getInt(6);
+            unitsOnOrder[size] = resultSet.getInt(7);
+            reorderLevel[size] = nullable(resultSet, 8);
+            discontinued[size] = resultSet.getInt(9);
+            size++;
+        }
+
+        return new Snapshot(size, Arrays.copyOf(productId, size), Arrays.copyOf(nameCode, size),
+                Arrays.copyOf(names, codes.size()), Arrays.copyOf(supplierId, size), Arrays.copyOf(categoryId, size),
+                Arrays.copyOf(unitPrice, size), Arrays.copyOf(unitsInStock, size), Arrays.copyOf(unitsOnOrder, size),
+                Arrays.copyOf(reorderLevel, size), Arrays.copyOf(discontinued, size));
+    }
+
+    // getInt() reads NULL as 0, which would put the row in category 0 or give it a reorder level of 0
+    private static int nullable(ResultSet resultSet, int column) throws SQLException {
+        int value = resultSet.getInt(column);
+        return resultSet.wasNull() ? NULL_VALUE : value;
+    }
+
+    // One immutable load of the table. Rows are in ProductID order; row i of every column is the same product.
+    public static final class Snapshot {
+        // Category IDs up to this value are summed in a plain array instead of a map
+        private static final int MAX_DENSE_CATEGORY = 1 << 16;
+
+        private final int size;
+        private final int[] productId;
+        private final int[] nameCode;
+        private final String[] names;
+        private final int[] supplierId;
+        private final int[] categoryId;
+        private final double[] unitPrice;
+        private final int[] unitsInStock;
+        private final int[] unitsOnOrder;
+        private final int[] reorderLevel;
+        private final int[] discontinued;
+
+        private Snapshot(int size, int[] productId, int[] nameCode, String[] names, int[] supplierId, int[] categoryId,
+                         double[] unitPrice, int[] unitsInStock, int[] unitsOnOrder, int[] reorderLevel, int[] discontinued) {
+            this.size = size;
+            this.productId = productId;
+            this.nameCode = nameCode;
+            this.names = names;
+            this.supplierId = supplierId;
+            this.categoryId = categoryId;
+            this.unitPrice = unitPrice;
+            this.unitsInStock = unitsInStock;
+            this.unitsOnOrder = unitsOnOrder;
+            this.reorderLevel = reorderLevel;
+            this.discontinued = discontinued;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        // Number of different product names - the size of the name dictionary
+        public int distinctNames() {
+            return names.length;
+        }
+
+        // Row of the product with this ID, or -1 (binary search - rows are sorted by ProductID)
+        public int indexOf(int productID) {
+            int index = Arrays.binarySearch(productId, productID);
+            return index < 0 ? -1 : index;
+        }
+
+        public int productId(int row) {
+            return productId[row];
+        }
+
+        public String productName(int row) {
+            return names[nameCode[row]];
+        }
+
+        public int supplierId(int row) {
+            return supplierId[row];
+        }
+
+        public int categoryId(int row) {
+            return categoryId[row];
+        }
+
+        public double unitPrice(int row) {
+            return unitPrice[row];
+        }
+
+        public int unitsInStock(int row) {
+            return unitsInStock[row];
+        }
+
+        public int unitsOnOrder(int row) {
+            return unitsOnOrder[row];
+        }
+
+        public int reorderLevel(int row) {
+            return reorderLevel[row];
+        }
+
+        public boolean isDiscontinued(int row) {
+            return discontinued[row] != 0;
+        }
+
+        // Builds a regular Product for one row (QuantityPerUnit is not part of the catalog and stays null).
+        // Product has no NULLs for these columns, so NULL_VALUE becomes 0 - what ProductDao returns.
+        public Product toProduct(int row) {
+            return new Product(productId[row], productName(row), orZero(supplierId[row]), orZero(categoryId[row]), null,
+                    unitPrice[row], unitsInStock[row], unitsOnOrder[row], orZero(reorderLevel[row]), discontinued[row]);
+        }
+
+        private static int orZero(int value) {
+            return value == NULL_VALUE ? 0 : value;
+        }
+
+        // Sum of unitPrice * unitsInStock over every product
+        public double totalInventoryValue() {
+            double total = 0.0;
+            for (int i = 0; i < size; i++) {
+                total += unitPrice[i] * unitsInStock[i];
+            }
+            return total;
+        }
+
+        // unitPrice * unitsInStock summed per CategoryID, sorted by CategoryID.
+        // Products without a category (NULL CategoryID) are left out; totalInventoryValue() counts them.
+        public Map<Integer, Double> inventoryValueByCategory() {
+            int maxCategory = 0;
+            int minCategory = 0;
+            for (int i = 0; i < size; i++) {
+                if (categoryId[i] != NULL_VALUE) {
+                    maxCategory = Math.max(maxCategory, categoryId[i]);
+                    minCategory = Math.min(minCategory, categoryId[i]);
+                }
+            }
+
+            Map<Integer, Double> result = new TreeMap<>();
+            if (minCategory < 0 || maxCategory > MAX_DENSE_CATEGORY) {
+                // Unusual IDs - fall back to summing in the map
+                for (int i = 0; i < size; i++) {
+                    if (categoryId[i] != NULL_VALUE) {
+                        result.merge(categoryId[i], unitPrice[i] * unitsInStock[i], Double::sum);
+                    }
+                }
+                return result;
+            }
+
+            double[] value = new double[maxCategory + 1];
+            boolean[] seen = new boolean[maxCategory + 1];
+            for (int i = 0; i < size; i++) {
+                if (categoryId[i] != NULL_VALUE) {
+                    value[categoryId[i]] += unitPrice[i] * unitsInStock[i];
+                    seen[categoryId[i]] = true;
+                }
+            }
+            for (int category = 0; category <= maxCategory; category++) {
+                if (seen[category]) {
+                    result.put(category, value[category]);
+                }
+            }
+            return result;
+        }
+
+        // Rows of products that are still sold and whose stock plus what is on order is at or below
+        // the reorder level - the "needs reordering" list. A product with no reorder level (NULL) is
+        // never on it: NULL_VALUE is below any stock count, so the comparison below is always false.
+        public int[] lowStockRows() {
+            int[] rows = new int[size];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                // Branch-free so the JIT can keep the loop tight: the row is written every time
+                // and only counted when it matches
+                rows[count] = i;
+                count += (discontinued[i] == 0 & unitsInStock[i] + unitsOnOrder[i] <= reorderLevel[i]) ? 1 : 0;
+            }
+            return Arrays.copyOf(rows, count);
+        }
+
+        // Same as lowStockRows() but as ProductIDs
+        public int[] lowStockProductIds() {
+            int[] rows = lowStockRows();
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = productId[rows[i]];
+            }
+            return rows;
+        }
+
+        @Override
+        public String toString() {
+            return "ProductCatalog " +
+                    " products = " + size + '\n' +
+                    " distinctNames = " + names.length + '\n';
+        }
+    }
+}
@@ -0,0 +1,578 @@
+package com.northwind.Data;
+
+import com.northwind.Model.Product;
+import com.northwind.Model.ProductSummary;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class ProductDao {
+    private DataSource dataSource;
+    private int fetchSize = 500;
+    private int batchSize = 1000;
+
+    public ProductDao(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("fetchSize must be positive");
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.batchSize = batchSize;
+    }
+
+    public List<Product> getAll() {
+        List<Product> products = new ArrayList<>();
+
+        String query = """
+                SELECT ProductID,ProductName,SupplierID,CategoryID,QuantityPerUnit,UnitPrice,UnitsInStock,UnitsOnOrder,ReorderLevel,Discontinued\s
+                FROM northwind.Products;
+                """;
+
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+
+            ProductMapper mapper = new ProductMapper();
+            try (ResultSet resultSet = statement.executeQuery()) {
+
+
+                while (resultSet.next()) {
+                    Product product = mapper.mapRow(resultSet);
+                    products.add(product);
+                }
+            }
+
+
+        } catch (SQLException e) {
+            System.out.println("There was an error retrieving the data. Please try again.");
+            e.printStackTrace();
+        }
+
+        return products;
+    }
+        public Product find(int productID){
+            Product product = null;
+
+            String findQuery = """
+                    SELECT ProductID,ProductName,SupplierID,CategoryID,QuantityPerUnit,UnitPrice,UnitsInStock,UnitsOnOrder,ReorderLevel,Discontinued
+                    FROM Products
+                    WHERE ProductID = ?;
+                    """;
+
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(findQuery)) {
+
+                statement.setInt(1, productID);
+
+                ProductMapper mapper = new ProductMapper();
+                try (ResultSet resultSet = statement.executeQuery()) {
+
+                    if (resultSet.next()) {
+                        product = mapper.mapRow(resultSet);
+                    }
+
+                }
+            } catch (SQLException e) {
+                System.out.println("There was an error retrieving the data. Please try again.");
+                e.printStackTrace();
+            }
+
+            return product;
+        }
+
+    public Product add(Product product){
+
+        String query = """
+                INSERT INTO Products (ProductName, SupplierID, CategoryID, QuantityPerUnit, UnitPrice, UnitsInStock, UnitsOnOrder, ReorderLevel, Discontinued)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?);
+                """;
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+
+            statement.setString(1, product.getProductName());
+            statement.setInt(2, product.getSupplierID());
+            statement.setInt(3, product.getCategoryID());
+            statement.setString(4, product.getQuantityPerUnit());
+            statement.setDouble(5, product.getUnitPrice());
+            statement.setInt(6, product.getUnitsInStock());
+            statement.setInt(7, product.getUnitsOnOrder());
+            statement.setInt(8, product.getReorderLevel());
+            statement.setInt(9, product.getDiscontinued());
+            statement.executeUpdate();
+
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    product.setProductID(generatedKeys.getInt(1));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.out.println("There was an error adding the product. Please try again.");
+            e.printStackTrace();
+        }
+
+        return product;
+    }
+
+    // Inserts the products batchSize rows at a time, one transaction per batch, and sets their
+    // generated ProductIDs. Returns how many were saved - a failed batch is rolled back and we stop there.
+    public int addAll(Collection<Product> products) {
+        int saved = 0;
+
+        try (Connection connection = dataSource.getConnection()) {
+
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+
+            try {
+                List<Product> batch = new ArrayList<>(Math.min(batchSize, products.size()));
+                for (Product product : products) {
+                    batch.add(product);
+                    if (batch.size() == batchSize) {
+                        insertBatch(connection, batch);
+                        connection.commit();
+                        saved += batch.size();
+                        batch.clear();
+                    }
+                }
+
+                if (!batch.isEmpty()) {
+                    insertBatch(connection, batch);
+                    connection.commit();
+                    saved += batch.size();
+                }
+
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+
+        } catch (SQLException e) {
+            System.out.println("There was an error adding the products. Please try again.");
+            e.printStackTrace();
+        }
+
+        return saved;
+    }
+
+    // Sends the products as one JDBC batch on the caller's connection and copies the generated IDs
+    // back in order. Committing is up to the caller (addAll, ProductImporter).
+    static void insertBatch(Connection connection, List<Product> products) throws SQLException {
+
+        String query = """
+                INSERT INTO Products (ProductName, SupplierID, CategoryID, QuantityPerUnit, UnitPrice, UnitsInStock, UnitsOnOrder, ReorderLevel, Discontinued)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?);
+                """;
+
+        try (PreparedStatement statement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+            for (Product product : products) {
+                statement.setString(1, product.getProductName());
+                statement.setInt(2, product.getSupplierID());
+                statement.setInt(3, product.getCategoryID());
+                statement.setString(4, product.getQuantityPerUnit());
+                statement.setDouble(5, product.getUnitPrice());
+                statement.setInt(6, product.getUnitsInStock());
+                statement.setInt(7, product.getUnitsOnOrder());
+                statement.setInt(8, product.getReorderLevel());
+                statement.setInt(9, product.getDiscontinued());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                Iterator<Product> pending = products.iterator();
+                while (generatedKeys.next() && pending.hasNext()) {
+                    pending.next().setProductID(generatedKeys.getInt(1));
+                }
+            }
+        }
+    }
+
+    public void update(Product product){
+
+        String query = """
+                UPDATE Products
+                SET ProductName = ?, SupplierID = ?, CategoryID = ?, QuantityPerUnit = ?, UnitPrice = ?, UnitsInStock = ?, UnitsOnOrder = ?, ReorderLevel = ?, Discontinued = ?
+                WHERE ProductID = ?;
+                """;
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            statement.setString(1, product.getProductName());
+            statement.setInt(2, product.getSupplierID());
+            statement.setInt(3, product.getCategoryID());
+            statement.setString(4, product.getQuantityPerUnit());
+            statement.setDouble(5, product.getUnitPrice());
+            statement.setInt(6, product.getUnitsInStock());
+            statement.setInt(7, product.getUnitsOnOrder());
+            statement.setInt(8, product.getReorderLevel());
+            statement.setInt(9, product.getDiscontinued());
+            statement.setInt(10, product.getProductID());
+            statement.executeUpdate();
+
+        } catch (SQLException e) {
+            System.out.println("There was an error updating the product. Please try again.");
+            e.printStackTrace();
+        }
+    }
+
+    public void delete(int productID){
+
+        String query = """
+                DELETE FROM Products
+                WHERE ProductID = ?;
+                """;
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            statement.setInt(1, productID);
+            statement.executeUpdate();
+
+        } catch (SQLException e) {
+            System.out.println("There was an error deleting the product. Please try again.");
+            e.printStackTrace();
+        }
+    }
+
+    // Takes quantity units out of stock if (and only if) that many are in stock.
+    // The check and the change are one conditional UPDATE, so two orders can never both take the
+    // last units: the database applies them one after the other and the second one matches no row.
+    // Returns false if the product doesn't exist, doesn't have enough stock, or the update failed.
+    public boolean reserve(int productID, int quantity) {
+        checkQuantity(quantity);
+
+        String query = """
+                UPDATE Products
+                SET UnitsInStock = UnitsInStock - ?
+                WHERE ProductID = ? AND UnitsInStock >= ?;
+                """;
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            statement.setInt(1, quantity);
+            statement.setInt(2, productID);
+            statement.setInt(3, quantity);
+            return statement.executeUpdate() == 1;
+
+        } catch (SQLException e) {
+            System.out.println("There was an error reserving the product. Please try again.");
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // Puts quantity units back into stock (a cancelled order). Returns false if the product doesn't exist.
+    public boolean release(int productID, int quantity) {
+        checkQuantity(quantity);
+
+        String query = """
+                UPDATE Products
+                SET UnitsInStock = UnitsInStock + ?
+                WHERE ProductID = ?;
+                """;
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            statement.setInt(1, quantity);
+            statement.setInt(2, productID);
+            return statement.executeUpdate() == 1;
+
+        } catch (SQLException e) {
+            System.out.println("There was an error releasing the product. Please try again.");
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // Reserves every line of an order (ProductID -> quantity) in one transaction: either all lines
+    // are reserved or, if any product is missing or short, none are.
+    // The updates are sent as one JDBC batch in ProductID order, so two orders that share products
+    // always lock the rows in the same order and can't deadlock each other.
+    public boolean reserveAll(Map<Integer, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return true;
+        }
+        Map<Integer, Integer> lines = new TreeMap<>(quantities);
+        lines.values().forEach(ProductDao::checkQuantity);
+
+        String query = """
+                UPDATE Products
+                SET UnitsInStock = UnitsInStock - ?
+                WHERE ProductID = ? AND UnitsInStock >= ?;
+                """;
+
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement statement = connection.prepareStatement(query)) {
+                for (Map.Entry<Integer, Integer> line : lines.entrySet()) {
+                    statement.setInt(1, line.getValue());
+                    statement.setInt(2, line.getKey());
+                    statement.setInt(3, line.getValue());
+                    statement.addBatch();
+                }
+
+                // Every line has to have changed exactly one row
+                // (a driver that only reports SUCCESS_NO_INFO counts as a failure - we can't tell)
+                for (int count : statement.executeBatch()) {
+                    if (count != 1) {
+                        connection.rollback();
+                        return false;
+                    }
+                }
+                connection.commit();
+                return true;
+
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+
+        } catch (SQLException e) {
+            System.out.println("There was an error reserving the order. Please try again.");
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // Adds each delta to UnitsInStock/UnitsOnOrder (relative changes, not new values) in one
+    // transaction, sent batchSize UPDATEs at a time. Rows are updated in ProductID order, like reserveAll.
+    // Returns true if everything was committed; false means nothing was changed.
+    public boolean adjustStockAll(Collection<StockDelta> deltas) {
+        try {
+            writeStockDeltas(deltas);
+            return true;
+        } catch (SQLException e) {
+            System.out.println("There was an error adjusting the stock. Please try again.");
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // adjustStockAll without swallowing the error, for StockDeltaBuffer: it has to know whether the
+    // write may work next time or will fail the same way again
+    void writeStockDeltas(Collection<StockDelta> deltas) throws SQLException {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<StockDelta> sorted = new ArrayList<>(deltas);
+        sorted.sort((a, b) -> Integer.compare(a.getProductID(), b.getProductID()));
+
+        String query = """
+                UPDATE Products
+                SET UnitsInStock = UnitsInStock + ?, UnitsOnOrder = UnitsOnOrder + ?
+                WHERE ProductID = ?;
+                """;
+
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement statement = connection.prepareStatement(query)) {
+                int pending = 0;
+                for (StockDelta delta : sorted) {
+                    statement.setInt(1, delta.getUnitsInStock());
+                    statement.setInt(2, delta.getUnitsOnOrder());
+                    statement.setInt(3, delta.getProductID());
+                    statement.addBatch();
+                    if (++pending == batchSize) {
+                        statement.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+                connection.commit();
+
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private static void checkQuantity(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("quantity must be positive");
+        }
+    }
+
+    // Streams every product without building the whole list first.
+    // The stream holds a connection until it is closed, so use it in a try-with-resources block.
+    // A read that fails part way through throws DataAccessException rather than ending the stream early.
+    public Stream<Product> stream() {
+
+        String query = """
+                SELECT ProductID,ProductName,SupplierID,CategoryID,QuantityPerUnit,UnitPrice,UnitsInStock,UnitsOnOrder,ReorderLevel,Discontinued
+                FROM Products;
+                """;
+
+        return ResultSetStreams.stream(dataSource, query, fetchSize, new ProductMapper());
+    }
+
+    public void forEach(Consumer<? super Product> action) {
+        try (Stream<Product> products = stream()) {
+            products.forEach(action);
+        }
+    }
+
+    // Keyset pagination driven by the primary key: WHERE ProductID > ? ORDER BY ProductID LIMIT ?
+    // uses the index to seek to the start of the page, so deep pages cost the same as the first one.
+    // Pass 0 for the first page, then page.getNextCursor() for the following ones.
+    public Page<Product, Integer> page(int afterProductId, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+
+        List<Product> products = new ArrayList<>();
+        boolean hasMore = false;
+
+        String query = """
+                SELECT ProductID,ProductName,SupplierID,CategoryID,QuantityPerUnit,UnitPrice,UnitsInStock,UnitsOnOrder,ReorderLevel,Discontinued
+                FROM Products
+                WHERE ProductID > ?
+                ORDER BY ProductID
+                LIMIT ?;
+                """;
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            statement.setInt(1, afterProductId);
+            statement.setInt(2, limit + 1);
+
+            ProductMapper mapper = new ProductMapper();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    if (products.size() == limit) {
+                        hasMore = true;
+                        break;
+                    }
+                    products.add(mapper.mapRow(resultSet));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.out.println("There was an error retrieving the data. Please try again.");
+            e.printStackTrace();
+        }
+
+        Integer nextCursor = hasMore ? products.get(products.size() - 1).getProductID() : null;
+        return new Page<>(products, nextCursor);
+    }
+
+    // Looks up many products with chunked WHERE ProductID IN (...) queries on one connection
+    // instead of one find() round trip per ID. IDs that don't exist are left out of the map.
+    public Map<Integer, Product> findAll(Collection<Integer> productIds) {
+        Map<Integer, Product> products = new HashMap<>();
+
+        try (Connection connection = dataSource.getConnection()) {
+
+            for (List<Integer> chunk : SqlUtils.chunkDistinct(productIds)) {
+                String query = """
+                        SELECT ProductID,ProductName,SupplierID,CategoryID,QuantityPerUnit,UnitPrice,UnitsInStock,UnitsOnOrder,ReorderLevel,Discontinued
+                        FROM Products
+                        WHERE ProductID IN (%s);
+                        """.formatted(SqlUtils.placeholders(chunk.size()));
+
+                try (PreparedStatement statement = connection.prepareStatement(query)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        statement.setInt(i + 1, chunk.get(i));
+                    }
+
+                    ProductMapper mapper = new ProductMapper();
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            Product product = mapper.mapRow(resultSet);
+                            products.put(product.getProductID(), product);
+                        }
+                    }
+                }
+            }
+
+        } catch (SQLException e) {
+            System.out.println("There was an error retrieving the data. Please try again.");
+            e.printStackTrace();
+        }
+
+        return products;
+    }
+
+    // Only ProductID, ProductName and UnitPrice - for list screens that don't need the other seven
+    // columns. Less to send, decode and keep in memory than getAll().
+    public List<ProductSummary> getSummaries() {
+        List<ProductSummary> summaries = new ArrayList<>();
+
+        String query = """
+                SELECT ProductID, ProductName, UnitPrice
+                FROM Products;
+                """;
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query);
+             ResultSet resultSet = statement.executeQuery()) {
+
+            while (resultSet.next()) {
+                summaries.add(new ProductSummary(resultSet.getInt(1), resultSet.getString(2), resultSet.getDouble(3)));
+            }
+
+        } catch (SQLException e) {
+            System.out.println("There was an error retrieving the data. Please try again.");
+            e.printStackTrace();
+        }
+
+        return summaries;
+    }
+
+    // getSummaries() as a stream - holds a connection until closed, like stream()
+    public Stream<ProductSummary> streamSummaries() {
+
+        String query = """
+                SELECT ProductID, ProductName, UnitPrice
+                FROM Products;
+                """;
+
+        return ResultSetStreams.stream(dataSource, query, fetchSize,
+                resultSet -> new ProductSummary(resultSet.getInt(1), resultSet.getString(2), resultSet.getDouble(3)));
+    }
+}
@@ -0,0 +1,581 @@
+package com.northwind.Data;
+
+import com.northwind.Model.Product;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Loads a supplier catalog CSV into Products using every core.
+//
+//   file -> split into chunks at line breaks -> parser threads (memory-mapped, one chunk each)
+//        -> bounded queue of validated Product batches -> writer threads (one connection each,
+//           batched INSERT + commit per batch)
+//
+// The queue is bounded, so parsers wait when the writers fall behind instead of filling the heap.
+// A row that fails validation, or that the database rejects, is reported with its line number;
+// the rest of its batch is still imported (a failed batch is retried row by row).
+//
+// The first line must be a header naming the columns (any order, case-insensitive). ProductName is
+// required; SupplierID, CategoryID, QuantityPerUnit, UnitPrice, UnitsInStock, UnitsOnOrder,
+// ReorderLevel and Discontinued default to 0/empty when missing. A ProductID column is ignored -
+// the database generates the IDs. Quoted fields may contain commas and "" but not line breaks.
+public class ProductImporter {
+    private static final String[] COLUMNS = {"ProductName", "SupplierID", "CategoryID", "QuantityPerUnit",
+            "UnitPrice", "UnitsInStock", "UnitsOnOrder", "ReorderLevel", "Discontinued"};
+    private static final int NAME = 0;
+    private static final int SUPPLIER = 1;
+    private static final int CATEGORY = 2;
+    private static final int QUANTITY = 3;
+    private static final int PRICE = 4;
+    private static final int IN_STOCK = 5;
+    private static final int ON_ORDER = 6;
+    private static final int REORDER = 7;
+    private static final int DISCONTINUED = 8;
+
+    private static final Batch END = new Batch(List.of(), new long[0]);
+
+    private final DataSource dataSource;
+    private int parserThreads = Runtime.getRuntime().availableProcessors();
+    private int writerThreads = 4;
+    private int batchSize = 1000;
+    private int queueCapacity = 16;
+    private long chunkSize = 32L * 1024 * 1024;
+    private int maxReportedErrors = 1000;
+
+    public ProductImporter(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public void setParserThreads(int parserThreads) {
+        this.parserThreads = positive(parserThreads, "parserThreads");
+    }
+
+    // Each writer holds one connection from the pool for the whole import
+    public void setWriterThreads(int writerThreads) {
+        this.writerThreads = positive(writerThreads, "writerThreads");
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = positive(batchSize, "batchSize");
+    }
+
+    // How many parsed batches may wait for a writer before the parsers pause
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = positive(queueCapacity, "queueCapacity");
+    }
+
+    public void setChunkSize(long chunkSize) {
+        if (chunkSize <= 0 || chunkSize > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("chunkSize must be between 1 and " + Integer.MAX_VALUE / 2);
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    public void setMaxReportedErrors(int maxReportedErrors) {
+        if (maxReportedErrors < 0) {
+            throw new IllegalArgumentException("maxReportedErrors must not be negative");
+        }
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public ImportResult importCsv(Path file) throws IOException {
+        long start = System.nanoTime();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long headerEnd = nextLineStart(channel, 0, size);
+            int[] fieldOfColumn = readHeader(channel, headerEnd);
+            List<long[]> chunks = split(channel, headerEnd, size);
+
+            Progress progress = new Progress(maxReportedErrors);
+            BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(queueCapacity);
+
+            ExecutorService writers = Executors.newFixedThreadPool(writerThreads, named("product-import-writer"));
+            ExecutorService parsers = Executors.newFixedThreadPool(parserThreads, named("product-import-parser"));
+            try {
+                for (int i = 0; i < writerThreads; i++) {
+                    writers.execute(new Writer(queue, progress));
+                }
+
+                List<Future<Integer>> parsed = new ArrayList<>();
+                for (int i = 0; i < chunks.size(); i++) {
+                    long[] chunk = chunks.get(i);
+                    parsed.add(parsers.submit(new Parser(channel, i, chunk[0], chunk[1], fieldOfColumn, queue, progress)));
+                }
+
+                // Lines per chunk, to turn (chunk, line within chunk) into real line numbers at the end
+                int[] linesPerChunk = new int[chunks.size()];
+                for (int i = 0; i < parsed.size(); i++) {
+                    linesPerChunk[i] = parsed.get(i).get();
+                }
+
+                for (int i = 0; i < writerThreads; i++) {
+                    queue.put(END);
+                }
+                writers.shutdown();
+                writers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+
+                return new ImportResult(file, progress.rowsRead.sum(), progress.rowsImported.sum(),
+                        progress.rowsFailed.sum(), progress.errors(linesPerChunk), System.nanoTime() - start);
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("The product import was interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IOException("Could not read " + file, e.getCause());
+            } finally {
+                parsers.shutdownNow();
+                writers.shutdownNow();
+            }
+        }
+    }
+
+    // Maps each known column to its position in the file (-1 when the file doesn't have it)
+    private static int[] readHeader(FileChannel channel, long headerEnd) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) headerEnd);
+        channel.read(buffer, 0);
+        String header = new String(buffer.array(), 0, (int) headerEnd, StandardCharsets.UTF_8).strip();
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+
+        Map<String, Integer> positions = new HashMap<>();
+        String[] names = header.split(",");
+        for (int i = 0; i < names.length; i++) {
+            positions.put(names[i].strip().replace("\"", "").toLowerCase(Locale.ROOT), i);
+        }
+
+        int[] fieldOfColumn = new int[COLUMNS.length];
+        for (int i = 0; i < COLUMNS.length; i++) {
+            fieldOfColumn[i] = positions.getOrDefault(COLUMNS[i].toLowerCase(Locale.ROOT), -1);
+        }
+        if (fieldOfColumn[NAME] < 0) {
+            throw new IOException("The header line has no ProductName column: " + header);
+        }
+        return fieldOfColumn;
+    }
+
+    // Cuts [from, size) into pieces of about chunkSize that each end right after a line break
+    private List<long[]> split(FileChannel channel, long from, long size) throws IOException {
+        List<long[]> chunks = new ArrayList<>();
+        long start = from;
+        while (start < size) {
+            long end = start + chunkSize >= size ? size : nextLineStart(channel, start + chunkSize, size);
+            chunks.add(new long[]{start, end});
+            start = end;
+        }
+        return chunks;
+    }
+
+    // Position just after the first '\n' at or after position (or size if there is none)
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static int positive(int value, String name) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(name + " must be positive");
+        }
+        return value;
+    }
+
+    private static ThreadFactory named(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // A batch of parsed products plus where each one came from (chunk << 32 | line in chunk)
+    private static final class Batch {
+        private final List<Product> products;
+        private final long[] rows;
+
+        private Batch(List<Product> products, long[] rows) {
+            this.products = products;
+            this.rows = rows;
+        }
+    }
+
+    // Counters and errors shared by all parser and writer threads
+    private static final class Progress {
+        private final LongAdder rowsRead = new LongAdder();
+        private final LongAdder rowsImported = new LongAdder();
+        private final LongAdder rowsFailed = new LongAdder();
+        private final ConcurrentLinkedQueue<Object[]> errors = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger reported = new AtomicInteger();
+        private final int maxReported;
+
+        private Progress(int maxReported) {
+            this.maxReported = maxReported;
+        }
+
+        void fail(long row, String message) {
+            rowsFailed.increment();
+            if (reported.incrementAndGet() <= maxReported) {
+                errors.add(new Object[]{row, message});
+            }
+        }
+
+        List<ImportResult.RowError> errors(int[] linesPerChunk) {
+            // Line 1 is the header, so the first line of chunk 0 is line 2
+            long[] firstLine = new long[linesPerChunk.length];
+            long line = 2;
+            for (int i = 0; i < linesPerChunk.length; i++) {
+                firstLine[i] = line;
+                line += linesPerChunk[i];
+            }
+
+            List<ImportResult.RowError> result = new ArrayList<>();
+            for (Object[] error : errors) {
+                long row = (Long) error[0];
+                int chunk = (int) (row >>> 32);
+                int lineInChunk = (int) row;
+                result.add(new ImportResult.RowError(firstLine[chunk] + lineInChunk, (String) error[1]));
+            }
+            result.sort((a, b) -> Long.compare(a.getLine(), b.getLine()));
+            return result;
+        }
+    }
+
+    // Parses one memory-mapped chunk into validated Product batches
+    private final class Parser implements Callable<Integer> {
+        private final FileChannel channel;
+        private final int chunk;
+        private final long start;
+        private final long end;
+        private final int[] fieldOfColumn;
+        private final BlockingQueue<Batch> queue;
+        private final Progress progress;
+
+        // Reused for every line of the chunk
+        private byte[] line = new byte[512];
+        private final int[] fieldStart = new int[64];
+        private final int[] fieldEnd = new int[64];
+        private final boolean[] fieldQuoted = new boolean[64];
+
+        private List<Product> products;
+        private long[] rows;
+
+        private Parser(FileChannel channel, int chunk, long start, long end, int[] fieldOfColumn,
+                       BlockingQueue<Batch> queue, Progress progress) {
+            this.channel = channel;
+            this.chunk = chunk;
+            this.start = start;
+            this.end = end;
+            this.fieldOfColumn = fieldOfColumn;
+            this.queue = queue;
+            this.progress = progress;
+        }
+
+        @Override
+        public Integer call() throws IOException, InterruptedException {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            newBatch();
+
+            int lineInChunk = 0;
+            while (buffer.hasRemaining()) {
+                int length = 0;
+                while (buffer.hasRemaining()) {
+                    byte b = buffer.get();
+                    if (b == '\n') {
+                        break;
+                    }
+                    if (length == line.length) {
+                        line = Arrays.copyOf(line, line.length * 2);
+                    }
+                    line[length++] = b;
+                }
+                if (length > 0 && line[length - 1] == '\r') {
+                    length--;
+                }
+
+                int current = lineInChunk++;
+                if (length == 0) {
+                    continue;
+                }
+
+                progress.rowsRead.increment();
+                long row = ((long) chunk << 32) | current;
+                try {
+                    products.add(parse(length));
+                    rows[products.size() - 1] = row;
+                } catch (IllegalArgumentException e) {
+                    progress.fail(row, e.getMessage());
+                    continue;
+                }
+
+                if (products.size() == batchSize) {
+                    queue.put(new Batch(products, rows));
+                    newBatch();
+                }
+            }
+
+            if (!products.isEmpty()) {
+                queue.put(new Batch(products, Arrays.copyOf(rows, products.size())));
+            }
+            return lineInChunk;
+        }
+
+        private void newBatch() {
+            products = new ArrayList<>(batchSize);
+            rows = new long[batchSize];
+        }
+
+        private Product parse(int length) {
+            int fields = split(length);
+
+            String name = text(fields, NAME);
+            if (name == null || name.isBlank()) {
+                throw new IllegalArgumentException("ProductName is empty");
+            }
+            if (name.length() > 40) {
+                throw new IllegalArgumentException("ProductName is longer than 40 characters");
+            }
+            String quantity = text(fields, QUANTITY);
+            if (quantity != null && quantity.length() > 20) {
+                throw new IllegalArgumentException("QuantityPerUnit is longer than 20 characters");
+            }
+
+            double price = decimal(fields, PRICE);
+            int discontinued = integer(fields, DISCONTINUED);
+            if (discontinued != 0 && discontinued != 1) {
+                throw new IllegalArgumentException("Discontinued must be 0 or 1");
+            }
+
+            return new Product(0, name, integer(fields, SUPPLIER), integer(fields, CATEGORY), quantity, price,
+                    integer(fields, IN_STOCK), integer(fields, ON_ORDER), integer(fields, REORDER), discontinued);
+        }
+
+        // Finds where each field of the current line starts and ends; returns the number of fields
+        private int split(int length) {
+            int count = 0;
+            int position = 0;
+            while (position <= length && count < fieldStart.length) {
+                if (position < length && line[position] == '"') {
+                    int from = ++position;
+                    while (position < length) {
+                        if (line[position] == '"') {
+                            if (position + 1 < length && line[position + 1] == '"') {
+                                position += 2;
+                                continue;
+                            }
+                            break;
+                        }
+                        position++;
+                    }
+                    if (position >= length) {
+                        throw new IllegalArgumentException("Unterminated quoted field");
+                    }
+                    fieldStart[count] = from;
+                    fieldEnd[count] = position;
+                    fieldQuoted[count] = true;
+                    count++;
+                    position++;
+                    if (position < length && line[position] != ',') {
+                        throw new IllegalArgumentException("Unexpected character after a quoted field");
+                    }
+                } else {
+                    int from = position;
+                    while (position < length && line[position] != ',') {
+                        position++;
+                    }
+                    fieldStart[count] = from;
+                    fieldEnd[count] = position;
+                    fieldQuoted[count] = false;
+                    count++;
+                }
+                position++;
+            }
+            return count;
+        }
+
+        private String text(int fields, int column) {
+            int field = fieldOfColumn[column];
+            if (field < 0 || field >= fields) {
+                return null;
+            }
+            int from = fieldStart[field];
+            int to = fieldEnd[field];
+            if (!fieldQuoted[field]) {
+                return new String(line, from, to - from, StandardCharsets.UTF_8);
+            }
+            // Quoted: turn every "" back into "
+            String raw = new String(line, from, to - from, StandardCharsets.UTF_8);
+            return raw.replace("\"\"", "\"");
+        }
+
+        // Parses a whole number straight from the bytes; a missing or empty field is 0
+        private int integer(int fields, int column) {
+            int field = fieldOfColumn[column];
+            if (field < 0 || field >= fields || fieldStart[field] == fieldEnd[field]) {
+                return 0;
+            }
+            long value = 0;
+            for (int i = fieldStart[field]; i < fieldEnd[field]; i++) {
+                byte b = line[i];
+                if (b < '0' || b > '9') {
+                    throw new IllegalArgumentException(COLUMNS[column] + " is not a whole number >= 0");
+                }
+                value = value * 10 + (b - '0');
+                // SupplierID and CategoryID are INT columns, the stock counts are SMALLINT
+                long max = column == SUPPLIER || column == CATEGORY ? Integer.MAX_VALUE : Short.MAX_VALUE;
+                if (value > max) {
+                    throw new IllegalArgumentException(COLUMNS[column] + " is too large");
+                }
+            }
+            return (int) value;
+        }
+
+        private double decimal(int fields, int column) {
+            String text = text(fields, column);
+            if (text == null || text.isBlank()) {
+                return 0.0;
+            }
+            try {
+                double value = Double.parseDouble(text.strip());
+                if (value < 0 || Double.isNaN(value) || Double.isInfinite(value)) {
+                    throw new IllegalArgumentException(COLUMNS[column] + " must be a number >= 0");
+                }
+                return value;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(COLUMNS[column] + " is not a number");
+            }
+        }
+    }
+
+    // Takes batches off the queue and inserts them on its own connection until it sees END
+    private final class Writer implements Runnable {
+        private final BlockingQueue<Batch> queue;
+        private final Progress progress;
+        private Connection connection;
+
+        private Writer(BlockingQueue<Batch> queue, Progress progress) {
+            this.queue = queue;
+            this.progress = progress;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    Batch batch = queue.take();
+                    if (batch == END) {
+                        return;
+                    }
+                    write(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                close();
+            }
+        }
+
+        private void write(Batch batch) {
+            try {
+                Connection current = connection();
+                ProductDao.insertBatch(current, batch.products);
+                current.commit();
+                progress.rowsImported.add(batch.products.size());
+                return;
+            } catch (SQLException | RuntimeException e) {
+                rollback();
+                if (connection == null) {
+                    // No connection at all - nothing in this batch can be written
+                    for (long row : batch.rows) {
+                        progress.fail(row, "No database connection: " + e.getMessage());
+                    }
+                    return;
+                }
+            }
+
+            // The batch was rejected as a whole - find the rows that are actually bad
+            for (int i = 0; i < batch.products.size(); i++) {
+                try {
+                    ProductDao.insertBatch(connection, List.of(batch.products.get(i)));
+                    connection.commit();
+                    progress.rowsImported.increment();
+                } catch (SQLException | RuntimeException e) {
+                    rollback();
+                    progress.fail(batch.rows[i], e.getMessage());
+                }
+            }
+        }
+
+        private Connection connection() throws SQLException {
+            if (connection == null) {
+                Connection opened = dataSource.getConnection();
+                opened.setAutoCommit(false);
+                connection = opened;
+            }
+            return connection;
+        }
+
+        private void rollback() {
+            if (connection == null) {
+                return;
+            }
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                // The connection is broken - drop it and open a new one for the next batch
+                close();
+            }
+        }
+
+        private void close() {
+            if (connection == null) {
+                return;
+            }
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+            connection = null;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.northwind.Data;
+
+// How RoutingDataSource picks between several healthy replicas for a read.
+public enum ReplicaSelection {
+    // Each read goes to the next replica in turn
+    ROUND_ROBIN,
+
+    // Each read goes to the replica with the fewest connections currently handed out by this router
+    LEAST_ACTIVE
+}
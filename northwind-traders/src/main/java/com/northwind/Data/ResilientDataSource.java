@@ -0,0 +1,222 @@
+package com.northwind.Data;
+
+import javax.sql.DataSource;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Wraps a pool with retries for transient failures and a CircuitBreaker.
+//
+//     ResilientDataSource primary = new ResilientDataSource(pool,
+//             new CircuitBreaker("primary", 5, Duration.ofSeconds(10)));
+//     CustomerDao customerDao = new CustomerDao(primary);
+//
+//     Customer customer = customerDao.find("ALFKI");
+//     if (customer == null && DaoCallStatus.lastCallFailed()) {
+//         // the database is down or overloaded - not "no such customer"
+//     }
+//
+// What is retried (SqlErrors decides what is transient), with jittered exponential backoff, up to
+// maxAttempts tries in all and never past the call's deadline when a BulkheadDataSource set one:
+//  - getConnection(), when the pool can't hand out a connection
+//  - executeQuery() on an auto-commit connection - a plain read, safe to run again - when it was
+//    rolled back (deadlock, lock wait timeout) and the connection is still good
+// Updates are never retried (adjustStock run twice adds twice), nor is anything inside a transaction
+// (the server has already rolled the whole transaction back), nor a read whose connection broke,
+// nor a statement that hit its query timeout or was cancelled - that is the caller giving up, and
+// it doesn't count against the breaker either.
+//
+// Every transient failure counts against the breaker. While it is open, getConnection() throws
+// straight away instead of waiting on the pool, so the DAOs print their error and return null or
+// an empty list in microseconds. The DAOs swallow their SQLExceptions, so the errors that end a
+// call here are recorded in DaoCallStatus for the calling thread.
+// Under a RoutingDataSource or BulkheadDataSource some calls never get here (replica reads, calls
+// a bulkhead sheds); those layers start and record calls in DaoCallStatus themselves.
+public class ResilientDataSource extends DelegatingDataSource {
+    private final CircuitBreaker breaker;
+
+    private volatile int maxAttempts = 3;
+    private volatile long baseBackoffNanos = TimeUnit.MILLISECONDS.toNanos(50);
+    private volatile long maxBackoffNanos = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong recovered = new AtomicLong();
+    private final AtomicLong failFast = new AtomicLong();
+
+    public ResilientDataSource(DataSource delegate, CircuitBreaker breaker) {
+        super(delegate);
+        this.breaker = breaker;
+    }
+
+    // Tries in all, including the first one; 1 turns retrying off
+    public void setMaxAttempts(int maxAttempts) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("maxAttempts must be positive");
+        }
+        this.maxAttempts = maxAttempts;
+    }
+
+    // The wait before retry n is random between 0 and min(maxBackoff, baseBackoff * 2^(n-1))
+    public void setBackoff(Duration baseBackoff, Duration maxBackoff) {
+        if (baseBackoff.isNegative() || maxBackoff.compareTo(baseBackoff) < 0) {
+            throw new IllegalArgumentException("need 0 <= baseBackoff <= maxBackoff");
+        }
+        this.baseBackoffNanos = baseBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+    }
+
+    public CircuitBreaker getBreaker() {
+        return breaker;
+    }
+
+    // Same as DaoCallStatus.lastCallFailed()
+    public boolean lastCallFailed() {
+        return DaoCallStatus.lastCallFailed();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DaoCallStatus.begin();
+
+        if (!breaker.tryAcquire()) {
+            failFast.incrementAndGet();
+            SQLException open = new SQLTransientConnectionException(
+                    "The database is unavailable (circuit breaker " + breaker.getName() + " is open)", "08001");
+            DaoCallStatus.failed(open);
+            throw open;
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Connection connection = delegate.getConnection();
+                if (attempt > 1) {
+                    recovered.incrementAndGet();
+                }
+                return wrap(connection);
+            } catch (SQLException e) {
+                boolean transientFailure = SqlErrors.isTransient(e);
+                if (transientFailure) {
+                    breaker.recordFailure();
+                }
+                if (!transientFailure || !retryAfterBackoff(attempt)) {
+                    DaoCallStatus.failed(e);
+                    throw e;
+                }
+            }
+        }
+    }
+
+    // Failed calls that went on to succeed on a later attempt
+    public long getRecovered() {
+        return recovered.get();
+    }
+
+    public long getRetries() {
+        return retries.get();
+    }
+
+    // getConnection() calls turned away by the open breaker
+    public long getFailFast() {
+        return failFast.get();
+    }
+
+    @Override
+    public String toString() {
+        return "ResilientDataSource " +
+                " retries = " + getRetries() + '\n' +
+                " recovered = " + getRecovered() + '\n' +
+                " failFast = " + getFailFast() + '\n' +
+                breaker;
+    }
+
+    private Connection wrap(Connection connection) {
+        return JdbcProxies.wrap(Connection.class, connection, (target, method, args) -> {
+            Object result = JdbcProxies.invoke(target, method, args);
+            if (result instanceof CallableStatement statement) {
+                return watch(CallableStatement.class, statement, connection);
+            }
+            if (result instanceof PreparedStatement statement) {
+                return watch(PreparedStatement.class, statement, connection);
+            }
+            if (result instanceof Statement statement) {
+                return watch(Statement.class, statement, connection);
+            }
+            return result;
+        });
+    }
+
+    private <S extends Statement> S watch(Class<S> type, S statement, Connection connection) {
+        return JdbcProxies.wrap(type, statement, (target, method, args) -> {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                return JdbcProxies.invoke(target, method, args);
+            }
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    Object result = JdbcProxies.invoke(target, method, args);
+                    breaker.recordSuccess();
+                    if (attempt > 1) {
+                        recovered.incrementAndGet();
+                    }
+                    return result;
+                } catch (SQLException e) {
+                    if (SqlErrors.isCancelled(e)) {
+                        // The caller's own timeout or deadline ran out: don't run it again, and it
+                        // doesn't count for or against the database's health
+                        DaoCallStatus.failed(e);
+                        throw e;
+                    }
+                    if (!SqlErrors.isTransient(e)) {
+                        // The database answered - it is up, the statement is just wrong
+                        breaker.recordSuccess();
+                        DaoCallStatus.failed(e);
+                        throw e;
+                    }
+                    breaker.recordFailure();
+                    boolean retryable = name.equals("executeQuery")
+                            && !SqlErrors.isBrokenConnection(e)
+                            && autoCommit(connection);
+                    if (!retryable || !retryAfterBackoff(attempt)) {
+                        DaoCallStatus.failed(e);
+                        throw e;
+                    }
+                }
+            }
+        });
+    }
+
+    // Waits before the next attempt; false if there shouldn't be one
+    private boolean retryAfterBackoff(int attempt) {
+        if (attempt >= maxAttempts || breaker.state() != CircuitBreaker.State.CLOSED) {
+            return false;
+        }
+        long ceiling = Math.min(maxBackoffNanos, baseBackoffNanos << Math.min(attempt - 1, 20));
+        long wait = ceiling > 0 ? ThreadLocalRandom.current().nextLong(ceiling + 1) : 0;
+        if (wait >= DaoCallStatus.remainingNanos()) {
+            // The call's deadline (BulkheadDataSource) would pass before the next try even starts
+            return false;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        retries.incrementAndGet();
+        return true;
+    }
+
+    private static boolean autoCommit(Connection connection) {
+        try {
+            return connection.getAutoCommit();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+}
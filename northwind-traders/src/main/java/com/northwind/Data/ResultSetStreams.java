@@ -0,0 +1,112 @@
+package com.northwind.Data;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Shared plumbing for the DAOs' stream() methods.
+// The connection, statement and result set stay open while the caller walks the stream
+// and are closed as soon as the last row has been read or the stream is closed early.
+//
+// If the query can't be started the stream is empty, like the DAOs' other "nothing found" results,
+// and the error is in DaoCallStatus. If reading fails after some rows were handed out the resources
+// are closed, the error is recorded in DaoCallStatus too, and the stream throws DataAccessException -
+// a cut-off scan must not look like the end of the table.
+final class ResultSetStreams {
+
+    private ResultSetStreams() {
+    }
+
+    static <T> Stream<T> stream(DataSource dataSource, String query, int fetchSize, RowMapper<T> mapper) {
+        Connection connection = null;
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+
+        try {
+            connection = dataSource.getConnection();
+
+            // Forward-only + read-only is what lets MySQL use a server side cursor.
+            // With useCursorFetch=true on the url the driver then pulls fetchSize rows per round trip
+            // instead of buffering the whole table in memory.
+            statement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            resultSet = statement.executeQuery();
+
+        } catch (SQLException e) {
+            System.out.println("There was an error retrieving the data. Please try again.");
+            e.printStackTrace();
+            DaoCallStatus.failed(e);
+            closeQuietly(resultSet, statement, connection);
+            return Stream.empty();
+        }
+
+        Cursor<T> cursor = new Cursor<>(connection, statement, resultSet, mapper);
+        return StreamSupport.stream(cursor, false).onClose(cursor::close);
+    }
+
+    private static void closeQuietly(AutoCloseable... resources) {
+        for (AutoCloseable resource : resources) {
+            if (resource == null) {
+                continue;
+            }
+            try {
+                resource.close();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private static final class Cursor<T> extends Spliterators.AbstractSpliterator<T> {
+        private final Connection connection;
+        private final PreparedStatement statement;
+        private final ResultSet resultSet;
+        private final RowMapper<T> mapper;
+        private boolean closed;
+
+        Cursor(Connection connection, PreparedStatement statement, ResultSet resultSet, RowMapper<T> mapper) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.connection = connection;
+            this.statement = statement;
+            this.resultSet = resultSet;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (closed) {
+                return false;
+            }
+            T row;
+            try {
+                if (!resultSet.next()) {
+                    // End of the rows - give the connection back to the pool right away
+                    close();
+                    return false;
+                }
+                row = mapper.mapRow(resultSet);
+            } catch (SQLException e) {
+                close();
+                DaoCallStatus.failed(e);
+                throw new DataAccessException("Reading the rows failed part way through", e);
+            }
+            action.accept(row);
+            return true;
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            closeQuietly(resultSet, statement, connection);
+        }
+    }
+}
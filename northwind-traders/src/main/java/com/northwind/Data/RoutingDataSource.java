@@ -0,0 +1,451 @@
+package com.northwind.Data;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+// Sends reads to replica pools and everything else to the primary.
+//
+//     RoutingDataSource router = new RoutingDataSource(primaryPool, ReplicaSelection.ROUND_ROBIN);
+//     router.addReplica("replica1", replicaPool);
+//     router.startHealthChecks(Duration.ofSeconds(5));
+//     ProductDao productDao = new ProductDao(router);
+//
+// The DAOs don't say whether a call reads or writes, so the connection handed out here doesn't pick
+// a pool until the DAO prepares its first statement. A plain SELECT on an auto-commit connection goes
+// to a replica; anything else stays on the primary:
+//  - statements that change data, and SELECT ... FOR UPDATE / LOCK IN SHARE MODE
+//  - every statement of a transaction (setAutoCommit(false) first - addAll, reserveAll, a unit of
+//    work from TransactionalDataSource), unless it was also marked setReadOnly(true)
+//  - reads by a thread that wrote less than stickyWindow ago, so it reads its own writes even if
+//    the replicas are a little behind. The window is counted from when the connection that wrote
+//    committed or was closed, so a long transaction doesn't use it up before its rows are visible
+//  - reads while no replica is healthy (down, or lagging more than maxReplicaLag)
+//
+// Because the pool is only asked at the first statement, an InstrumentedDataSource on top gets its
+// acquire time from there rather than from getConnection() (see DeferredAcquire).
+//
+// With no replicas added getConnection() is a plain pass-through to the primary.
+public class RoutingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    // Measures how far behind the primary a replica is, in milliseconds.
+    // Return -1 if the replica isn't replicating at all.
+    @FunctionalInterface
+    public interface LagCheck {
+        long lagMillis(Connection connection) throws SQLException;
+    }
+
+    // SHOW REPLICA STATUS (MySQL 8.0.22+); Seconds_Behind_Source is NULL when replication is stopped
+    public static final LagCheck MYSQL_LAG_CHECK = connection -> {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SHOW REPLICA STATUS")) {
+            if (!resultSet.next()) {
+                return -1;
+            }
+            long seconds = resultSet.getLong("Seconds_Behind_Source");
+            return resultSet.wasNull() ? -1 : seconds * 1000;
+        }
+    };
+
+    private final ReplicaSelection selection;
+    private final List<Replica> replicas = new CopyOnWriteArrayList<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    // When this thread last sent, committed or finished a write on the primary
+    // (System.nanoTime(), Long.MIN_VALUE for never)
+    private final ThreadLocal<long[]> lastWrite = ThreadLocal.withInitial(() -> new long[]{Long.MIN_VALUE});
+
+    private volatile LagCheck lagCheck = MYSQL_LAG_CHECK;
+    private volatile long maxReplicaLagMillis = 5000;
+    private volatile long stickyWindowNanos = TimeUnit.SECONDS.toNanos(2);
+
+    private ScheduledExecutorService healthChecker;
+
+    private final AtomicLong replicaReads = new AtomicLong();
+    private final AtomicLong primaryReads = new AtomicLong();
+    private final AtomicLong primaryWrites = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    public RoutingDataSource(DataSource primary, ReplicaSelection selection) {
+        super(primary);
+        this.selection = selection;
+    }
+
+    // Replicas start out healthy; the health checks (or a failed getConnection) take them out of rotation
+    public void addReplica(String name, DataSource replica) {
+        replicas.add(new Replica(name, replica));
+    }
+
+    public void setLagCheck(LagCheck lagCheck) {
+        this.lagCheck = lagCheck;
+    }
+
+    public void setMaxReplicaLag(Duration maxReplicaLag) {
+        if (maxReplicaLag.isNegative()) {
+            throw new IllegalArgumentException("maxReplicaLag must not be negative");
+        }
+        this.maxReplicaLagMillis = maxReplicaLag.toMillis();
+    }
+
+    // How long after a write the same thread keeps reading from the primary
+    public void setStickyWindow(Duration stickyWindow) {
+        if (stickyWindow.isNegative()) {
+            throw new IllegalArgumentException("stickyWindow must not be negative");
+        }
+        this.stickyWindowNanos = stickyWindow.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        // A read served by a replica never reaches the primary's layers - start the call here
+        DaoCallStatus.begin();
+        if (replicas.isEmpty()) {
+            return delegate.getConnection();
+        }
+        RoutedConnection routed = new RoutedConnection(DeferredAcquire.takeOver());
+        return (Connection) Proxy.newProxyInstance(RoutingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (self, method, args) -> routed.invoke(self, method, args));
+    }
+
+    // Runs the lag check on every replica now
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            replica.check(lagCheck, maxReplicaLagMillis);
+        }
+    }
+
+    // Checks every replica every period on a background thread
+    public synchronized void startHealthChecks(Duration period) {
+        if (healthChecker != null) {
+            throw new IllegalStateException("Health checks are already running");
+        }
+        healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = period.toMillis();
+        healthChecker.scheduleWithFixedDelay(this::checkReplicas, 0, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+            healthChecker = null;
+        }
+    }
+
+    public int getReplicaCount() {
+        return replicas.size();
+    }
+
+    public List<String> getHealthyReplicas() {
+        List<String> names = new ArrayList<>();
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                names.add(replica.name);
+            }
+        }
+        return names;
+    }
+
+    public long getReplicaReads() {
+        return replicaReads.get();
+    }
+
+    // Reads that stayed on the primary (transaction, sticky after a write, or no healthy replica)
+    public long getPrimaryReads() {
+        return primaryReads.get();
+    }
+
+    public long getPrimaryWrites() {
+        return primaryWrites.get();
+    }
+
+    // Reads that were meant for a replica but went to the primary because no replica could serve them
+    public long getFallbacks() {
+        return fallbacks.get();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("RoutingDataSource ")
+                .append(" replicaReads = ").append(getReplicaReads()).append('\n')
+                .append(" primaryReads = ").append(getPrimaryReads()).append('\n')
+                .append(" primaryWrites = ").append(getPrimaryWrites()).append('\n')
+                .append(" fallbacks = ").append(getFallbacks()).append('\n');
+        for (Replica replica : replicas) {
+            builder.append(' ').append(replica).append('\n');
+        }
+        return builder.toString();
+    }
+
+    // Plain SELECTs (and WITH ... SELECT) that don't lock rows
+    static boolean isRead(String sql) {
+        String statement = sql.strip().toUpperCase(Locale.ROOT);
+        if (!statement.startsWith("SELECT") && !statement.startsWith("WITH")) {
+            return false;
+        }
+        return !statement.contains("FOR UPDATE") && !statement.contains("LOCK IN SHARE MODE")
+                && !statement.contains("FOR SHARE");
+    }
+
+    private Replica pickReplica() {
+        List<Replica> healthy = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                healthy.add(replica);
+            }
+        }
+        if (healthy.isEmpty()) {
+            return null;
+        }
+        if (selection == ReplicaSelection.LEAST_ACTIVE) {
+            Replica least = healthy.get(0);
+            for (Replica replica : healthy) {
+                if (replica.active.get() < least.active.get()) {
+                    least = replica;
+                }
+            }
+            return least;
+        }
+        return healthy.get(Math.floorMod(nextReplica.getAndIncrement(), healthy.size()));
+    }
+
+    // One replica pool and what the last health check found
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private final AtomicInteger active = new AtomicInteger();
+        private volatile boolean healthy = true;
+        private volatile long lagMillis;
+        private volatile String problem;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        void check(LagCheck lagCheck, long maxLagMillis) {
+            try (Connection connection = dataSource.getConnection()) {
+                long lag = lagCheck.lagMillis(connection);
+                lagMillis = lag;
+                if (lag < 0) {
+                    markUnhealthy("not replicating");
+                } else if (lag > maxLagMillis) {
+                    markUnhealthy(lag + " ms behind the primary");
+                } else {
+                    problem = null;
+                    healthy = true;
+                }
+            } catch (SQLException e) {
+                markUnhealthy(e.getMessage());
+            }
+        }
+
+        void markUnhealthy(String reason) {
+            problem = reason;
+            healthy = false;
+        }
+
+        @Override
+        public String toString() {
+            return name + (healthy ? " healthy" : " unhealthy (" + problem + ")")
+                    + " lag = " + lagMillis + " ms active = " + active.get();
+        }
+    }
+
+    // The state behind one connection handed out by getConnection(). Until the first statement it only
+    // remembers the autoCommit / readOnly / isolation settings; then it opens the real connection on
+    // the pool the statement belongs to and applies them.
+    private final class RoutedConnection {
+        // Gets the time connect() took to get a connection from a pool; null if nobody is timing it
+        private final LongConsumer acquireTimer;
+        private Connection target;
+        private Replica replica;
+        private boolean closed;
+        // A statement that changes data was prepared on this (primary) connection
+        private boolean wrote;
+
+        private Boolean autoCommit;
+        private Boolean readOnly;
+        private Integer isolation;
+
+        private RoutedConnection(LongConsumer acquireTimer) {
+            this.acquireTimer = acquireTimer;
+        }
+
+        Object invoke(Object self, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            // Identity of the handed-out connection, whether or not it is connected yet
+            switch (name) {
+                case "equals":
+                    return args[0] == self;
+                case "hashCode":
+                    return System.identityHashCode(self);
+                default:
+                    break;
+            }
+
+            if (target == null) {
+                switch (name) {
+                    case "close":
+                        closed = true;
+                        return null;
+                    case "isClosed":
+                        return closed;
+                    case "setAutoCommit":
+                        autoCommit = (Boolean) args[0];
+                        return null;
+                    case "getAutoCommit":
+                        return autoCommit == null || autoCommit;
+                    case "setReadOnly":
+                        readOnly = (Boolean) args[0];
+                        return null;
+                    case "isReadOnly":
+                        return readOnly != null && readOnly;
+                    case "setTransactionIsolation":
+                        isolation = (Integer) args[0];
+                        return null;
+                    case "commit", "rollback":
+                        // Nothing has been sent yet, so there is nothing to commit or undo
+                        if (args == null) {
+                            return null;
+                        }
+                        break;
+                    case "toString":
+                        return "RoutedConnection (not connected yet)";
+                    default:
+                        break;
+                }
+                if (closed) {
+                    throw new SQLException("Connection is closed");
+                }
+                boolean statement = name.equals("prepareStatement") || name.equals("prepareCall")
+                        || name.equals("nativeSQL");
+                try {
+                    connect(statement && args[0] instanceof String sql ? sql : null);
+                } catch (SQLException e) {
+                    DaoCallStatus.failed(e);
+                    throw e;
+                }
+            } else if (name.startsWith("prepare") && args != null && args[0] instanceof String sql
+                    && replica == null && !isRead(sql)) {
+                // Already on the primary - later writes on this connection count as writes too
+                wrote();
+            }
+
+            if (name.equals("close")) {
+                if (!closed) {
+                    closed = true;
+                    if (replica != null) {
+                        replica.active.decrementAndGet();
+                    }
+                    try {
+                        target.close();
+                    } finally {
+                        // Whatever this connection wrote is done now; read it back from the primary
+                        // for a full stickyWindow from here
+                        if (wrote) {
+                            lastWrite.get()[0] = System.nanoTime();
+                        }
+                    }
+                }
+                return null;
+            }
+            Object result = JdbcProxies.invoke(target, method, args);
+            if (wrote && name.equals("commit")) {
+                // The writes only become visible (and start replicating) now
+                lastWrite.get()[0] = System.nanoTime();
+            }
+            return result;
+        }
+
+        private void wrote() {
+            wrote = true;
+            lastWrite.get()[0] = System.nanoTime();
+        }
+
+        // sql is the first statement, or null when the DAO asked for something else first
+        private void connect(String sql) throws SQLException {
+            boolean read = sql != null && isRead(sql);
+            boolean inTransaction = autoCommit != null && !autoCommit;
+            boolean readOnlyTransaction = readOnly != null && readOnly;
+            long start = System.nanoTime();
+            long wroteAt = lastWrite.get()[0];
+            boolean sticky = wroteAt != Long.MIN_VALUE && start - wroteAt < stickyWindowNanos;
+
+            if (read && (!inTransaction || readOnlyTransaction) && !sticky) {
+                Replica chosen = pickReplica();
+                while (chosen != null) {
+                    try {
+                        target = chosen.dataSource.getConnection();
+                        replica = chosen;
+                        chosen.active.incrementAndGet();
+                        replicaReads.incrementAndGet();
+                        break;
+                    } catch (SQLException e) {
+                        // Out of rotation until the next health check says it is back
+                        chosen.markUnhealthy(e.getMessage());
+                        chosen = pickReplica();
+                    }
+                }
+                if (target == null) {
+                    fallbacks.incrementAndGet();
+                }
+            }
+
+            if (target == null) {
+                target = delegate.getConnection();
+                if (read) {
+                    primaryReads.incrementAndGet();
+                } else {
+                    primaryWrites.incrementAndGet();
+                    if (sql != null) {
+                        wrote();
+                    }
+                }
+            }
+            if (acquireTimer != null) {
+                acquireTimer.accept(System.nanoTime() - start);
+            }
+
+            try {
+                if (isolation != null) {
+                    target.setTransactionIsolation(isolation);
+                }
+                if (readOnly != null) {
+                    target.setReadOnly(readOnly);
+                }
+                if (autoCommit != null) {
+                    target.setAutoCommit(autoCommit);
+                }
+            } catch (SQLException e) {
+                target.close();
+                target = null;
+                if (replica != null) {
+                    replica.active.decrementAndGet();
+                    replica = null;
+                }
+                throw e;
+            }
+        }
+    }
+}
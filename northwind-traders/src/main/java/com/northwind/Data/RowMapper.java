@@ -0,0 +1,12 @@
+package com.northwind.Data;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Turns the row the ResultSet is currently pointing at into one model object.
+// The DAOs hand one of these to the shared query helpers so every query builds
+// its objects the same way.
+@FunctionalInterface
+public interface RowMapper<T> {
+    T mapRow(ResultSet resultSet) throws SQLException;
+}
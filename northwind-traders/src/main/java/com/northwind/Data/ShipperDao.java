@@ -12,7 +12,11 @@ import java.sql.ResultSet;             // This holds the results we get back fro
 import java.sql.SQLException;          // This helps us handle database errors
 import java.sql.Statement;             // This is needed to retrieve auto-generated keys
 import java.util.ArrayList;            // This is a flexible list that can grow and shrink
+import java.util.Collection;           // Any group of objects (a List, a Set, ...)
+import java.util.HashMap;              // A lookup table from keys to values
+import java.util.Iterator;             // Walks through a collection one item at a time
 import java.util.List;                 // This is the general concept of a list
+import java.util.Map;                  // The general concept of a lookup table
 
     // DAO stands for "Data Access Object"
 // This class is responsible for talking to the database and managing shipper information
@@ -29,6 +33,9 @@ import java.util.List;                 // This is the general concept of a list
         // The "private" keyword means only this class can directly access it
         private DataSource dataSource;
 
+        // How many shippers addAll() sends to the database in one batch (and one transaction)
+        private int batchSize = 1000;
+
         // This is a "constructor" - it runs when you create a new ShipperDao object
         // It's like initializing/setting up the object when it's born
         // The constructor takes a DataSource as input and stores it for later use
@@ -39,6 +46,17 @@ import java.util.List;                 // This is the general concept of a list
             this.dataSource = dataSource;
         }
 
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("batchSize must be positive");
+            }
+            this.batchSize = batchSize;
+        }
+
         // METHOD 1: GET ALL SHIPPERS
         // This method retrieves ALL shippers from the database and returns them as a list
         // It's like asking "Show me everyone in your database"
@@ -61,6 +79,7 @@ import java.util.List;                 // This is the general concept of a list
             try (Connection connection = dataSource.getConnection();  // Open the door to the database
                  PreparedStatement statement = connection.prepareStatement(query)) {  // Prepare our question
 
+                ShipperMapper mapper = new ShipperMapper();
                 // Execute the query and get back a ResultSet (a table of results)
                 try (ResultSet resultSet = statement.executeQuery()) {
 
@@ -69,12 +88,9 @@ import java.util.List;                 // This is the general concept of a list
                     while (resultSet.next()) {
 
                         // Build a Shipper object from the current row's data
-                        // IMPORTANT: Notice we use getInt() for ShipperID because it's a number (int)
-                        // For Customer, we used getString() because CustomerID was text (String)
-                        Shipper shipper = new Shipper(
-                                resultSet.getInt("ShipperID"),        // Get the shipper's ID as an integer
-                                resultSet.getString("CompanyName"),   // Get the company name as a string
-                                resultSet.getString("Phone"));        // Get the phone number as a string
+                        // The mapper finds each column's position once, then reads every row by position
+                        // (ShipperMapper uses getInt() for ShipperID because it's a number, not text)
+                        Shipper shipper = mapper.mapRow(resultSet);
 
                         // Add this shipper to our list
                         shippers.add(shipper);
@@ -118,16 +134,14 @@ import java.util.List;                 // This is the general concept of a list
                 // The "1" means "the first placeholder" (in case there were multiple)
                 statement.setInt(1, shipperId);
 
+                ShipperMapper mapper = new ShipperMapper();
                 try (ResultSet resultSet = statement.executeQuery()) {
 
                     // "if" instead of "while" because we expect at most ONE result
                     // Shipper IDs are unique, so there should only be one match
                     if (resultSet.next()) {
                         // We found them! Build the Shipper object
-                        shipper = new Shipper(
-                                resultSet.getInt("ShipperID"),        // Remember: getInt() for numbers
-                                resultSet.getString("CompanyName"),
-                                resultSet.getString("Phone"));
+                        shipper = mapper.mapRow(resultSet);
                     }
                     // If resultSet.next() is false, shipper stays null (shipper not found)
                 }
@@ -264,6 +278,116 @@ import java.util.List;                 // This is the general concept of a list
 
             // This method returns nothing (void) - it just performs the deletion
         }
+
+        // METHOD 6: ADD MANY SHIPPERS AT ONCE
+        // Sends the shippers in batches of batchSize rows, committing once per batch
+        // With rewriteBatchedStatements=true on the url each batch becomes one multi-row INSERT
+        // Just like add(), every shipper gets its new ShipperID set - the database hands the
+        // generated keys back in the same order we added the rows, so we walk both together
+        // Returns how many shippers were saved - a failed batch is rolled back and we stop there
+        public int addAll(Collection<Shipper> shippers) {
+
+            String query = """
+                INSERT INTO Shippers (CompanyName, Phone)
+                VALUES (?, ?);
+                """;
+
+            int saved = 0;
+
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+
+                try {
+                    List<Shipper> batch = new ArrayList<>(Math.min(batchSize, shippers.size()));
+                    for (Shipper shipper : shippers) {
+                        statement.setString(1, shipper.getCompanyName());
+                        statement.setString(2, shipper.getPhone());
+                        statement.addBatch();
+                        batch.add(shipper);
+
+                        if (batch.size() == batchSize) {
+                            saved += executeBatch(connection, statement, batch);
+                        }
+                    }
+
+                    // Whatever is left over after the last full batch
+                    if (!batch.isEmpty()) {
+                        saved += executeBatch(connection, statement, batch);
+                    }
+
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+
+            } catch (SQLException e) {
+                System.out.println("There was an error adding the shippers. Please try again.");
+                e.printStackTrace();
+            }
+
+            return saved;
+        }
+
+        // METHOD 7: FIND MANY SHIPPERS AT ONCE
+        // Instead of calling find() once per ID (one query each), this asks for a whole group of IDs
+        // with WHERE ShipperID IN (?, ?, ...) - a few hundred IDs per query
+        // The map goes from ShipperID to Shipper; IDs that don't exist are simply not in it
+        public Map<Integer, Shipper> findAll(Collection<Integer> shipperIds) {
+            Map<Integer, Shipper> shippers = new HashMap<>();
+
+            try (Connection connection = dataSource.getConnection()) {
+
+                for (List<Integer> chunk : SqlUtils.chunkDistinct(shipperIds)) {
+                    String query = """
+                        SELECT ShipperID, CompanyName, Phone
+                        FROM Shippers
+                        WHERE ShipperID IN (%s);
+                        """.formatted(SqlUtils.placeholders(chunk.size()));
+
+                    try (PreparedStatement statement = connection.prepareStatement(query)) {
+                        for (int i = 0; i < chunk.size(); i++) {
+                            statement.setInt(i + 1, chunk.get(i));
+                        }
+
+                        ShipperMapper mapper = new ShipperMapper();
+                        try (ResultSet resultSet = statement.executeQuery()) {
+                            while (resultSet.next()) {
+                                Shipper shipper = mapper.mapRow(resultSet);
+                                shippers.put(shipper.getShipperId(), shipper);
+                            }
+                        }
+                    }
+                }
+
+            } catch (SQLException e) {
+                System.out.println("There was an error retrieving the data. Please try again.");
+                e.printStackTrace();
+            }
+
+            return shippers;
+        }
+
+        // Runs one batch, commits it and copies the generated IDs back onto the shippers in order
+        private int executeBatch(Connection connection, PreparedStatement statement, List<Shipper> batch) throws SQLException {
+            statement.executeBatch();
+            connection.commit();
+
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                Iterator<Shipper> pending = batch.iterator();
+                while (generatedKeys.next() && pending.hasNext()) {
+                    pending.next().setShipperId(generatedKeys.getInt(1));
+                }
+            }
+
+            int size = batch.size();
+            batch.clear();
+            return size;
+        }
     }
 
 // ============================================================
@@ -291,8 +415,8 @@ import java.util.List;                 // This is the general concept of a list
 //
 // 5. SAME CRUD PATTERN:
 //    - Despite the differences, both follow the same CRUD pattern:
-//      C - CREATE: add()
-//      R - READ:   getAll() and find()
+//      C - CREATE: add() and addAll()
+//      R - READ:   getAll(), find() and findAll()
 //      U - UPDATE: update()
 //      D - DELETE: delete()
 //
@@ -0,0 +1,88 @@
+package com.northwind.Data;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Makes concurrent lookups of the same key share one call.
+// The first thread to ask for a key runs the loader; every thread that asks for the same key
+// while that call is still running waits for it and gets the same result instead of running
+// its own query. Different keys never wait on each other - there is no global lock, only one
+// ConcurrentHashMap entry per key that is in flight.
+public class SingleFlight<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public V execute(K key, Supplier<V> loader) {
+        calls.increment();
+
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        executions.increment();
+        try {
+            V value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            // Removed only once the result is set, so late arrivals start a fresh call
+            // instead of reusing an old answer
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    // How many calls actually ran the loader
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    // How many calls were answered by someone else's in-flight call
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "SingleFlight " +
+                " calls = " + getCalls() + '\n' +
+                " executions = " + getExecutions() + '\n' +
+                " coalesced = " + getCoalesced() + '\n';
+    }
+
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.northwind.Data;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+// Collects the statements that took longer than the threshold, grouped by SQL "fingerprint"
+// (the SQL with literals and IN lists replaced by ?, and whitespace squeezed), so the same
+// query with different values counts as one entry. Nothing is printed while the application
+// runs - call dump() (or the JMX operation) to see the worst offenders.
+public class SlowQueryLog implements SlowQueryLogMXBean {
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN \\(\\?(?:, ?\\?)*\\)");
+    private static final int MAX_CACHED_FINGERPRINTS = 1000;
+    private static final int MAX_SAMPLED_BINDS = 16;
+    private static final int MAX_BIND_LENGTH = 64;
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, String> fingerprints = new ConcurrentHashMap<>();
+    private final LongAdder slowQueries = new LongAdder();
+    private volatile long thresholdNanos;
+
+    public SlowQueryLog(long thresholdMillis) {
+        setThresholdMillis(thresholdMillis);
+    }
+
+    @Override
+    public long getThresholdMillis() {
+        return thresholdNanos / 1_000_000;
+    }
+
+    @Override
+    public void setThresholdMillis(long thresholdMillis) {
+        if (thresholdMillis < 0) {
+            throw new IllegalArgumentException("thresholdMillis must not be negative");
+        }
+        this.thresholdNanos = thresholdMillis * 1_000_000;
+    }
+
+    long getThresholdNanos() {
+        return thresholdNanos;
+    }
+
+    void record(String sql, String daoMethod, long elapsedNanos, long rows, Object[] binds) {
+        slowQueries.increment();
+        String fingerprint = fingerprint(sql);
+        entries.computeIfAbsent(fingerprint, Entry::new).record(daoMethod, elapsedNanos, rows, binds);
+    }
+
+    public String fingerprint(String sql) {
+        String cached = fingerprints.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+
+        String normalized = sql.strip();
+        if (normalized.endsWith(";")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        normalized = STRING_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").strip();
+        normalized = IN_LIST.matcher(normalized).replaceAll("IN (?...)");
+
+        // findAll() builds one SQL string per IN list size, so the cache stays small - but don't let it grow forever
+        if (fingerprints.size() < MAX_CACHED_FINGERPRINTS) {
+            fingerprints.put(sql, normalized);
+        }
+        return normalized;
+    }
+
+    public List<Entry> getEntries() {
+        List<Entry> sorted = new ArrayList<>(entries.values());
+        sorted.sort(Comparator.comparingLong(Entry::getTotalNanos).reversed());
+        return sorted;
+    }
+
+    @Override
+    public int getFingerprintCount() {
+        return entries.size();
+    }
+
+    @Override
+    public long getSlowQueryCount() {
+        return slowQueries.sum();
+    }
+
+    // Every fingerprint, worst total time first
+    @Override
+    public String dump() {
+        return dump(Integer.MAX_VALUE);
+    }
+
+    public String dump(int top) {
+        StringBuilder builder = new StringBuilder("Slow queries (over " + getThresholdMillis() + " ms)\n");
+        List<Entry> sorted = getEntries();
+        for (int i = 0; i < sorted.size() && i < top; i++) {
+            builder.append(sorted.get(i)).append('\n');
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public void reset() {
+        entries.clear();
+        slowQueries.reset();
+    }
+
+    public void registerMBean() {
+        try {
+            ObjectName name = new ObjectName("com.northwind:type=SlowQueryLog");
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            }
+        } catch (JMException e) {
+            System.out.println("There was an error publishing the slow query log over JMX.");
+            e.printStackTrace();
+        }
+    }
+
+    static String describeBinds(Object[] binds) {
+        if (binds == null) {
+            return "[]";
+        }
+        StringBuilder builder = new StringBuilder("[");
+        int shown = Math.min(binds.length, MAX_SAMPLED_BINDS);
+        for (int i = 0; i < shown; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            String value = String.valueOf(binds[i]);
+            builder.append(value.length() > MAX_BIND_LENGTH ? value.substring(0, MAX_BIND_LENGTH) + "..." : value);
+        }
+        if (binds.length > shown) {
+            builder.append(", ... ").append(binds.length - shown).append(" more");
+        }
+        return builder.append(']').toString();
+    }
+
+    // Everything we know about one fingerprint. Slow queries are rare, so a lock per entry is fine.
+    public static final class Entry {
+        private final String fingerprint;
+        private final List<String> daoMethods = new ArrayList<>();
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+        private long totalRows;
+        private String slowestBinds = "[]";
+
+        private Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        private synchronized void record(String daoMethod, long elapsedNanos, long rows, Object[] binds) {
+            count++;
+            totalNanos += elapsedNanos;
+            totalRows += rows;
+            if (!daoMethods.contains(daoMethod)) {
+                daoMethods.add(daoMethod);
+            }
+            // Keep the bind values of the slowest run - they are the most useful ones to replay
+            if (elapsedNanos >= maxNanos) {
+                maxNanos = elapsedNanos;
+                slowestBinds = describeBinds(binds);
+            }
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        public synchronized List<String> getDaoMethods() {
+            return List.copyOf(daoMethods);
+        }
+
+        public synchronized long getCount() {
+            return count;
+        }
+
+        public synchronized long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public synchronized long getMaxNanos() {
+            return maxNanos;
+        }
+
+        public synchronized long getTotalRows() {
+            return totalRows;
+        }
+
+        public synchronized String getSlowestBinds() {
+            return slowestBinds;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return String.format(" %s%n   count=%d total=%.1fms avg=%.1fms max=%.1fms avgRows=%.1f from=%s slowestBinds=%s",
+                    fingerprint, count, totalNanos / 1e6, totalNanos / 1e6 / count, maxNanos / 1e6,
+                    (double) totalRows / count, daoMethods, slowestBinds);
+        }
+    }
+}
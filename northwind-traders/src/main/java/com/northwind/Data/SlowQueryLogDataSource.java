@@ -0,0 +1,113 @@
+package com.northwind.Data;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+// Wraps the pool and times every statement the DAOs run. Queries are timed from execute until
+// their ResultSet is closed (so reading the rows counts), updates until execute returns.
+// Anything slower than the log's threshold is recorded in the SlowQueryLog with its bind values;
+// the calling DAO method is looked up only for those slow statements.
+public class SlowQueryLogDataSource extends DelegatingDataSource {
+    private final SlowQueryLog log;
+
+    public SlowQueryLogDataSource(DataSource delegate, SlowQueryLog log) {
+        super(delegate);
+        this.log = log;
+    }
+
+    public SlowQueryLog getLog() {
+        return log;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = delegate.getConnection();
+
+        return JdbcProxies.wrap(Connection.class, connection, (target, method, args) -> {
+            Object result = JdbcProxies.invoke(target, method, args);
+            if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                return wrapStatement(statement, (String) args[0]);
+            }
+            return result;
+        });
+    }
+
+    private PreparedStatement wrapStatement(PreparedStatement statement, String sql) {
+        Object[][] binds = {new Object[0]};
+
+        return JdbcProxies.wrap(PreparedStatement.class, statement, (target, method, args) -> {
+            String name = method.getName();
+
+            // setString(3, "ALFKI"), setInt(1, 7), setNull(2, Types.VARCHAR), ...
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                binds[0] = remember(binds[0], index, name.equals("setNull") ? null : args[1]);
+                return JdbcProxies.invoke(target, method, args);
+            }
+            if (name.equals("clearParameters")) {
+                binds[0] = new Object[0];
+            }
+            if (!name.startsWith("execute")) {
+                return JdbcProxies.invoke(target, method, args);
+            }
+
+            Object[] executedBinds = binds[0].clone();
+            long start = System.nanoTime();
+            Object result = JdbcProxies.invoke(target, method, args);
+
+            if (result instanceof ResultSet resultSet) {
+                return wrapResultSet(resultSet, sql, executedBinds, start);
+            }
+
+            long elapsed = System.nanoTime() - start;
+            if (elapsed >= log.getThresholdNanos()) {
+                log.record(sql, JdbcProxies.callingDaoMethod(), elapsed, rowsChanged(result), executedBinds);
+            }
+            return result;
+        });
+    }
+
+    private ResultSet wrapResultSet(ResultSet resultSet, String sql, Object[] binds, long start) {
+        long[] rows = new long[1];
+        boolean[] closed = new boolean[1];
+
+        return JdbcProxies.wrap(ResultSet.class, resultSet, (target, method, args) -> {
+            Object result = JdbcProxies.invoke(target, method, args);
+            String name = method.getName();
+            if (name.equals("next") && Boolean.TRUE.equals(result)) {
+                rows[0]++;
+            } else if (name.equals("close") && !closed[0]) {
+                closed[0] = true;
+                long elapsed = System.nanoTime() - start;
+                if (elapsed >= log.getThresholdNanos()) {
+                    log.record(sql, JdbcProxies.callingDaoMethod(), elapsed, rows[0], binds);
+                }
+            }
+            return result;
+        });
+    }
+
+    private static Object[] remember(Object[] binds, int index, Object value) {
+        if (index > binds.length) {
+            binds = Arrays.copyOf(binds, index);
+        }
+        binds[index - 1] = value;
+        return binds;
+    }
+
+    private static long rowsChanged(Object result) {
+        if (result instanceof Integer count) {
+            return count;
+        }
+        if (result instanceof Long count) {
+            return count;
+        }
+        if (result instanceof int[] counts) {
+            return counts.length;
+        }
+        return 0;
+    }
+}
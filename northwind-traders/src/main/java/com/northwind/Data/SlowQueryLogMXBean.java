@@ -0,0 +1,16 @@
+package com.northwind.Data;
+
+// Reads and tunes the slow query log over JMX.
+public interface SlowQueryLogMXBean {
+    long getThresholdMillis();
+
+    void setThresholdMillis(long thresholdMillis);
+
+    int getFingerprintCount();
+
+    long getSlowQueryCount();
+
+    String dump();
+
+    void reset();
+}
@@ -0,0 +1,204 @@
+package com.northwind.Data;
+
+import com.northwind.Model.Shipper;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// A ShipperDao that keeps the whole (tiny) Shippers table in memory.
+// Reads never touch the pool: find() is one lookup in an immutable map that is swapped out
+// as a whole, so readers never lock and never see a half-built table.
+// add/update/delete go to the database and then reload the table; startRefresh() reloads it
+// on a timer to pick up changes made by other processes.
+// Inside a TransactionalDataSource unit of work reads go to the database (the snapshot doesn't have
+// the unit's own writes yet) and the reload waits until the unit of work has committed.
+public class SnapshotShipperDao extends ShipperDao implements AutoCloseable {
+    private final DataSource dataSource;
+    private final TransactionalDataSource transactions;
+
+    // null until the first successful load
+    private volatile Snapshot snapshot;
+
+    // Reloads run one at a time so an older read of the table can never replace a newer one
+    private final Object refreshLock = new Object();
+
+    private ScheduledExecutorService refresher;
+
+    public SnapshotShipperDao(DataSource dataSource) {
+        super(dataSource);
+        this.dataSource = dataSource;
+        this.transactions = TransactionalDataSource.find(dataSource);
+    }
+
+    @Override
+    public List<Shipper> getAll() {
+        Snapshot current = current();
+        if (current == null) {
+            return super.getAll();
+        }
+
+        List<Shipper> shippers = new ArrayList<>(current.shippers.size());
+        for (Shipper shipper : current.shippers) {
+            shippers.add(copyOf(shipper));
+        }
+        return shippers;
+    }
+
+    @Override
+    public Shipper find(int shipperId) {
+        Snapshot current = current();
+        if (current == null) {
+            return super.find(shipperId);
+        }
+
+        Shipper shipper = current.byId.get(shipperId);
+        return shipper == null ? null : copyOf(shipper);
+    }
+
+    @Override
+    public Map<Integer, Shipper> findAll(Collection<Integer> shipperIds) {
+        Snapshot current = current();
+        if (current == null) {
+            return super.findAll(shipperIds);
+        }
+
+        Map<Integer, Shipper> shippers = new HashMap<>();
+        for (Integer shipperId : shipperIds) {
+            Shipper shipper = shipperId == null ? null : current.byId.get(shipperId);
+            if (shipper != null) {
+                shippers.put(shipperId, copyOf(shipper));
+            }
+        }
+        return shippers;
+    }
+
+    @Override
+    public Shipper add(Shipper shipper) {
+        Shipper added = super.add(shipper);
+        refresh();
+        return added;
+    }
+
+    @Override
+    public int addAll(Collection<Shipper> shippers) {
+        int saved = super.addAll(shippers);
+        refresh();
+        return saved;
+    }
+
+    @Override
+    public void update(Shipper shipper) {
+        super.update(shipper);
+        refresh();
+    }
+
+    @Override
+    public void delete(int shipperId) {
+        super.delete(shipperId);
+        refresh();
+    }
+
+    // Reloads the table and swaps the new snapshot in.
+    // Returns false (and keeps serving the old snapshot) if the database could not be read.
+    // Inside a unit of work the reload is only scheduled for after the commit, and this returns true.
+    public boolean refresh() {
+        if (inTransaction()) {
+            transactions.afterCommit(this::refresh);
+            return true;
+        }
+
+        String query = """
+                SELECT ShipperID, CompanyName, Phone
+                FROM Shippers;
+                """;
+
+        synchronized (refreshLock) {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(query);
+                 ResultSet resultSet = statement.executeQuery()) {
+
+                List<Shipper> shippers = new ArrayList<>();
+                ShipperMapper mapper = new ShipperMapper();
+                while (resultSet.next()) {
+                    shippers.add(mapper.mapRow(resultSet));
+                }
+                snapshot = new Snapshot(shippers);
+                return true;
+
+            } catch (SQLException e) {
+                System.out.println("There was an error refreshing the shippers. Please try again.");
+                e.printStackTrace();
+                return false;
+            }
+        }
+    }
+
+    // Reloads the table every period on a background thread
+    public synchronized void startRefresh(Duration period) {
+        if (refresher != null) {
+            throw new IllegalStateException("Background refresh is already running");
+        }
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "shipper-snapshot-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = period.toMillis();
+        refresher.scheduleWithFixedDelay(this::refresh, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+            refresher = null;
+        }
+    }
+
+    // null means "ask the database"
+    private Snapshot current() {
+        if (inTransaction()) {
+            return null;
+        }
+        Snapshot current = snapshot;
+        if (current == null && refresh()) {
+            current = snapshot;
+        }
+        return current;
+    }
+
+    private boolean inTransaction() {
+        return transactions != null && transactions.isInTransaction();
+    }
+
+    // Callers get their own copy so changing a returned Shipper can't change the snapshot
+    private static Shipper copyOf(Shipper shipper) {
+        return new Shipper(shipper.getShipperId(), shipper.getCompanyName(), shipper.getPhone());
+    }
+
+    private static final class Snapshot {
+        private final List<Shipper> shippers;
+        private final Map<Integer, Shipper> byId;
+
+        private Snapshot(List<Shipper> shippers) {
+            Map<Integer, Shipper> index = new HashMap<>();
+            for (Shipper shipper : shippers) {
+                index.put(shipper.getShipperId(), shipper);
+            }
+            this.shippers = List.copyOf(shippers);
+            this.byId = Map.copyOf(index);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.northwind.Data;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientException;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+// Sorts SQLExceptions into "try again later" and "will fail the same way every time".
+//
+// Transient: the connection couldn't be made or was lost (SQLState class 08), the server rolled the
+// statement back because of a deadlock or serialization failure (class 40), lock wait timeouts,
+// too many connections, and the pool running out of connections. Everything else - syntax errors,
+// duplicate keys, bad data, missing tables - is permanent: retrying can't help, and it shows the
+// database is up and answering.
+//
+// Cancelled statements are neither: a query timeout or Statement.cancel() is the caller giving up
+// (setQueryTimeout, a BulkheadDataSource deadline), so running the statement again would only run
+// past the caller's limit, and it says nothing about whether the database is healthy.
+final class SqlErrors {
+
+    // MySQL error codes that are transient whatever SQLState the driver reports with them:
+    // too many connections, server shutting down, lock wait timeout, deadlock,
+    // can't connect (socket / host), server has gone away, lost connection during query
+    private static final Set<Integer> TRANSIENT_MYSQL_ERRORS = Set.of(1040, 1053, 1205, 1213, 2002, 2003, 2006, 2013);
+
+    // The subset of those after which the connection itself is unusable
+    private static final Set<Integer> BROKEN_CONNECTION_MYSQL_ERRORS = Set.of(1053, 2006, 2013);
+
+    private SqlErrors() {
+    }
+
+    static boolean isTransient(SQLException e) {
+        if (isCancelled(e)) {
+            return false;
+        }
+        if (e instanceof SQLTransientException || e instanceof SQLRecoverableException
+                || e instanceof SQLNonTransientConnectionException) {
+            return true;
+        }
+        String state = e.getSQLState();
+        if (state != null && (state.startsWith("08") || state.startsWith("40"))) {
+            return true;
+        }
+        if (TRANSIENT_MYSQL_ERRORS.contains(e.getErrorCode())) {
+            return true;
+        }
+        // commons-dbcp2 "Cannot get a connection, pool error Timeout waiting for idle object"
+        return state == null && e.getCause() instanceof NoSuchElementException;
+    }
+
+    // The statement ran into its query timeout or was cancelled: SQLTimeoutException (MySQLTimeoutException),
+    // "query execution was interrupted" (70100, MySQLStatementCancelledException), "query canceled"
+    // (57014, H2 and others) or the ODBC style timeout states
+    static boolean isCancelled(SQLException e) {
+        if (e instanceof SQLTimeoutException) {
+            return true;
+        }
+        String state = e.getSQLState();
+        return state != null && (state.equals("70100") || state.equals("57014")
+                || state.equals("HYT00") || state.equals("HYT01"));
+    }
+
+    // True if the connection the statement ran on can't be used again
+    static boolean isBrokenConnection(SQLException e) {
+        if (e instanceof SQLRecoverableException || e instanceof SQLNonTransientConnectionException) {
+            return true;
+        }
+        String state = e.getSQLState();
+        return (state != null && state.startsWith("08")) || BROKEN_CONNECTION_MYSQL_ERRORS.contains(e.getErrorCode());
+    }
+}
@@ -0,0 +1,42 @@
+package com.northwind.Data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+// Small helpers shared by the DAOs for building SQL.
+final class SqlUtils {
+
+    // Upper bound on the ? placeholders in one IN (...) list.
+    // Keeps statements small enough for the server's prepared statement limits
+    // while still turning hundreds of lookups into a handful of queries.
+    static final int MAX_IN_PARAMETERS = 500;
+
+    private SqlUtils() {
+    }
+
+    // "?, ?, ?" with count placeholders, for use inside IN (...)
+    static String placeholders(int count) {
+        StringBuilder builder = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append('?');
+        }
+        return builder.toString();
+    }
+
+    // Drops nulls and duplicates, then splits the ids into chunks of at most MAX_IN_PARAMETERS
+    static <K> List<List<K>> chunkDistinct(Collection<K> ids) {
+        List<K> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        distinct.removeIf(id -> id == null);
+
+        List<List<K>> chunks = new ArrayList<>();
+        for (int start = 0; start < distinct.size(); start += MAX_IN_PARAMETERS) {
+            chunks.add(distinct.subList(start, Math.min(start + MAX_IN_PARAMETERS, distinct.size())));
+        }
+        return chunks;
+    }
+}
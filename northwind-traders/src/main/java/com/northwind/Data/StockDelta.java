@@ -0,0 +1,35 @@
+package com.northwind.Data;
+
+// A change to apply to one product's stock counts: units to add to UnitsInStock and to UnitsOnOrder
+// (negative to take away). Used by ProductDao.adjustStockAll and StockDeltaBuffer.
+public class StockDelta {
+    private final int productID;
+    private final int unitsInStock;
+    private final int unitsOnOrder;
+
+    public StockDelta(int productID, int unitsInStock, int unitsOnOrder) {
+        this.productID = productID;
+        this.unitsInStock = unitsInStock;
+        this.unitsOnOrder = unitsOnOrder;
+    }
+
+    public int getProductID() {
+        return productID;
+    }
+
+    public int getUnitsInStock() {
+        return unitsInStock;
+    }
+
+    public int getUnitsOnOrder() {
+        return unitsOnOrder;
+    }
+
+    @Override
+    public String toString() {
+        return "StockDelta " +
+                " productID = " + productID +
+                " unitsInStock = " + unitsInStock +
+                " unitsOnOrder = " + unitsOnOrder;
+    }
+}
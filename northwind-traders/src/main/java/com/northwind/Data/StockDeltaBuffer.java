@@ -0,0 +1,472 @@
+package com.northwind.Data;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Write-behind buffer for stock changes coming in from the warehouse feed.
+// adjust(productID, +5, -5) doesn't touch the database: the delta is added to a running total for
+// that product. Every interval (or as soon as maxPendingProducts different products are waiting)
+// the totals are written with ProductDao.adjustStockAll - one UPDATE per product, no matter
+// how many events came in for it.
+//
+//     StockDeltaBuffer buffer = new StockDeltaBuffer(productDao, Duration.ofSeconds(1), 5000);
+//     buffer.adjust(11, -3, 0);
+//     ...
+//     buffer.close();   // writes whatever is still waiting
+//
+// The database is behind by up to one interval (see the lag values). Totals whose write fails
+// transiently (connection lost, deadlock, ...) stay in the buffer and are retried with the next flush.
+// A write that fails any other way (a CHECK constraint, an out of range value) would fail the same
+// way every time and hold back every other product with it, so the flush then writes the totals one
+// product at a time and sets the ones that still fail aside: they are printed, counted in
+// getQuarantinedDeltas() and kept (the latest MAX_QUARANTINED) for takeQuarantined().
+// Deltas are only held in memory, so call close() when shutting down.
+public class StockDeltaBuffer implements StockDeltaBufferMXBean, AutoCloseable {
+    // Products are spread over this many independently locked maps so feed threads rarely wait on each other
+    private static final int STRIPES = 16;
+    private static final int CLOSE_ATTEMPTS = 3;
+    public static final int MAX_QUARANTINED = 1000;
+
+    private final ProductDao productDao;
+    private final int maxPendingProducts;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final ScheduledExecutorService flusher;
+
+    // Flushes run one at a time
+    private final Object flushLock = new Object();
+    private final AtomicInteger pendingProducts = new AtomicInteger();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+
+    // Totals that can't be written, oldest first. Guarded by itself.
+    private final ArrayDeque<StockDelta> quarantine = new ArrayDeque<>();
+
+    private final LongAdder events = new LongAdder();
+    private final AtomicLong eventsWritten = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final AtomicLong quarantinedDeltas = new AtomicLong();
+    private final AtomicLong lastFlushNanos = new AtomicLong();
+    private final AtomicLong lastFlushLagNanos = new AtomicLong();
+    private final AtomicLong maxFlushLagNanos = new AtomicLong();
+
+    public StockDeltaBuffer(ProductDao productDao, Duration interval, int maxPendingProducts) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+        if (maxPendingProducts <= 0) {
+            throw new IllegalArgumentException("maxPendingProducts must be positive");
+        }
+        this.productDao = productDao;
+        this.maxPendingProducts = maxPendingProducts;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-delta-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = Math.max(1, interval.toMillis());
+        flusher.scheduleWithFixedDelay(this::flush, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    // Adds to the product's pending UnitsInStock / UnitsOnOrder change (negative numbers take away)
+    public void adjust(int productID, int unitsInStockDelta, int unitsOnOrderDelta) {
+        Stripe stripe = stripes[Math.floorMod(productID, STRIPES)];
+        boolean newProduct;
+
+        synchronized (stripe) {
+            if (stripe.closed) {
+                throw new IllegalStateException("StockDeltaBuffer is closed");
+            }
+            if (stripe.pending.isEmpty()) {
+                stripe.oldestNanos = System.nanoTime();
+            }
+            // UnitsInStock, UnitsOnOrder, number of adjust() calls
+            int[] total = stripe.pending.get(productID);
+            newProduct = total == null;
+            if (newProduct) {
+                total = new int[3];
+                stripe.pending.put(productID, total);
+            }
+            total[0] += unitsInStockDelta;
+            total[1] += unitsOnOrderDelta;
+            total[2]++;
+            stripe.events++;
+        }
+        events.increment();
+
+        if (newProduct && pendingProducts.incrementAndGet() >= maxPendingProducts
+                && flushQueued.compareAndSet(false, true)) {
+            // Enough different products are waiting - write them now instead of at the next tick
+            try {
+                flusher.execute(() -> {
+                    flushQueued.set(false);
+                    flush();
+                });
+            } catch (RejectedExecutionException e) {
+                // close() is running and will write everything itself
+            }
+        }
+    }
+
+    // Writes everything that is pending right now. Returns false if a write failed transiently;
+    // those deltas are then kept and retried by the next flush.
+    @Override
+    public boolean flush() {
+        synchronized (flushLock) {
+            long start = System.nanoTime();
+
+            List<Drained> drained = new ArrayList<>(STRIPES);
+            List<StockDelta> deltas = new ArrayList<>();
+            long oldest = Long.MAX_VALUE;
+            long drainedEvents = 0;
+            for (Stripe stripe : stripes) {
+                Drained taken = stripe.drain();
+                if (taken == null) {
+                    continue;
+                }
+                drained.add(taken);
+                pendingProducts.addAndGet(-taken.pending.size());
+                oldest = Math.min(oldest, taken.oldestNanos);
+                drainedEvents += taken.events;
+                taken.pending.forEach((productID, total) -> {
+                    // Changes that cancelled each other out don't need a write at all
+                    if (total[0] != 0 || total[1] != 0) {
+                        deltas.add(new StockDelta(productID, total[0], total[1]));
+                    }
+                });
+            }
+            if (drained.isEmpty()) {
+                return true;
+            }
+
+            Set<Integer> retry = new HashSet<>();
+            Set<Integer> quarantined = new HashSet<>();
+            try {
+                productDao.writeStockDeltas(deltas);
+            } catch (SQLException e) {
+                if (SqlErrors.isTransient(e)) {
+                    System.out.println("There was an error writing the stock changes. They will be retried.");
+                    e.printStackTrace();
+                    deltas.forEach(delta -> retry.add(delta.getProductID()));
+                } else {
+                    writeEach(deltas, retry, quarantined);
+                }
+            }
+
+            long notWrittenEvents = 0;
+            for (Drained taken : drained) {
+                notWrittenEvents += putBack(taken, retry) + events(taken, quarantined);
+            }
+            rowsWritten.addAndGet(deltas.size() - retry.size() - quarantined.size());
+            eventsWritten.addAndGet(drainedEvents - notWrittenEvents);
+            if (!retry.isEmpty()) {
+                failedFlushes.incrementAndGet();
+                return false;
+            }
+
+            long end = System.nanoTime();
+            flushes.incrementAndGet();
+            lastFlushNanos.set(end - start);
+            lastFlushLagNanos.set(end - oldest);
+            maxFlushLagNanos.accumulateAndGet(end - oldest, Math::max);
+            return true;
+        }
+    }
+
+    // Stops taking new deltas and writes the ones still waiting, retrying a few times.
+    // Anything that still can't be written is printed so it can be applied by hand.
+    @Override
+    public void close() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.closed = true;
+            }
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        for (int attempt = 1; attempt <= CLOSE_ATTEMPTS; attempt++) {
+            if (flush()) {
+                return;
+            }
+            try {
+                Thread.sleep(100L * attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        System.out.println("There was an error writing the last stock changes. These were not saved:");
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.pending.forEach((productID, total) ->
+                        System.out.println(new StockDelta(productID, total[0], total[1])));
+            }
+        }
+    }
+
+    public void registerMBean() {
+        try {
+            ObjectName name = new ObjectName("com.northwind:type=StockDeltaBuffer");
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            }
+        } catch (JMException e) {
+            System.out.println("There was an error publishing the stock buffer over JMX.");
+            e.printStackTrace();
+        }
+    }
+
+    // Hands back (and forgets) the totals that were set aside, so they can be corrected and adjusted again
+    public List<StockDelta> takeQuarantined() {
+        synchronized (quarantine) {
+            List<StockDelta> taken = new ArrayList<>(quarantine);
+            quarantine.clear();
+            return taken;
+        }
+    }
+
+    // Products with a change waiting to be written
+    @Override
+    public int getPendingProducts() {
+        return pendingProducts.get();
+    }
+
+    // adjust() calls waiting to be written
+    @Override
+    public long getPendingEvents() {
+        long pending = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                pending += stripe.events;
+            }
+        }
+        return pending;
+    }
+
+    // How long the oldest waiting change has been waiting - how far behind the database is right now
+    @Override
+    public long getOldestPendingMillis() {
+        long now = System.nanoTime();
+        long oldest = now;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                if (!stripe.pending.isEmpty()) {
+                    oldest = Math.min(oldest, stripe.oldestNanos);
+                }
+            }
+        }
+        return TimeUnit.NANOSECONDS.toMillis(now - oldest);
+    }
+
+    // How long the oldest change written by the last successful flush had waited
+    @Override
+    public long getLastFlushLagMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(lastFlushLagNanos.get());
+    }
+
+    @Override
+    public long getMaxFlushLagMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxFlushLagNanos.get());
+    }
+
+    // How long the last successful flush took
+    @Override
+    public long getLastFlushMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(lastFlushNanos.get());
+    }
+
+    @Override
+    public long getEvents() {
+        return events.sum();
+    }
+
+    @Override
+    public long getFlushes() {
+        return flushes.get();
+    }
+
+    @Override
+    public long getFailedFlushes() {
+        return failedFlushes.get();
+    }
+
+    @Override
+    public long getRowsWritten() {
+        return rowsWritten.get();
+    }
+
+    // Totals set aside because their write can never succeed
+    @Override
+    public long getQuarantinedDeltas() {
+        return quarantinedDeltas.get();
+    }
+
+    @Override
+    public String[] getQuarantined() {
+        synchronized (quarantine) {
+            String[] deltas = new String[quarantine.size()];
+            int i = 0;
+            for (StockDelta delta : quarantine) {
+                deltas[i++] = delta.toString();
+            }
+            return deltas;
+        }
+    }
+
+    // adjust() calls per UPDATE sent - how many writes the buffer saved
+    @Override
+    public double getCoalescingRatio() {
+        long rows = rowsWritten.get();
+        return rows == 0 ? 0.0 : (double) eventsWritten.get() / rows;
+    }
+
+    @Override
+    public String toString() {
+        return "StockDeltaBuffer " +
+                " events = " + getEvents() + '\n' +
+                " pendingProducts = " + getPendingProducts() + '\n' +
+                " flushes = " + getFlushes() + '\n' +
+                " failedFlushes = " + getFailedFlushes() + '\n' +
+                " rowsWritten = " + getRowsWritten() + '\n' +
+                " quarantinedDeltas = " + getQuarantinedDeltas() + '\n' +
+                " coalescingRatio = " + String.format("%.1f", getCoalescingRatio()) + '\n' +
+                " maxFlushLagMillis = " + getMaxFlushLagMillis() + '\n';
+    }
+
+    // After the batch failed for good: every product in its own transaction, so one bad row can only
+    // fail itself. Stops at the first transient error and leaves the rest for the next flush.
+    private void writeEach(List<StockDelta> deltas, Set<Integer> retry, Set<Integer> quarantined) {
+        for (StockDelta delta : deltas) {
+            if (!retry.isEmpty()) {
+                retry.add(delta.getProductID());
+                continue;
+            }
+            try {
+                productDao.writeStockDeltas(List.of(delta));
+            } catch (SQLException e) {
+                if (SqlErrors.isTransient(e)) {
+                    System.out.println("There was an error writing the stock changes. They will be retried.");
+                    e.printStackTrace();
+                    retry.add(delta.getProductID());
+                } else {
+                    quarantined.add(delta.getProductID());
+                    quarantine(delta, e);
+                }
+            }
+        }
+    }
+
+    private void quarantine(StockDelta delta, SQLException cause) {
+        System.out.println("There was an error writing a stock change that can't succeed. It was set aside: " + delta);
+        cause.printStackTrace();
+        quarantinedDeltas.incrementAndGet();
+        synchronized (quarantine) {
+            if (quarantine.size() == MAX_QUARANTINED) {
+                quarantine.removeFirst();
+            }
+            quarantine.addLast(delta);
+        }
+    }
+
+    // Puts the products' totals back, added to anything that arrived in the meantime.
+    // Returns the number of adjust() calls put back.
+    private long putBack(Drained taken, Set<Integer> productIDs) {
+        long putBack = 0;
+        synchronized (taken.stripe) {
+            for (Map.Entry<Integer, int[]> entry : taken.pending.entrySet()) {
+                if (!productIDs.contains(entry.getKey())) {
+                    continue;
+                }
+                if (taken.stripe.pending.isEmpty()) {
+                    taken.stripe.oldestNanos = taken.oldestNanos;
+                } else {
+                    taken.stripe.oldestNanos = Math.min(taken.stripe.oldestNanos, taken.oldestNanos);
+                }
+                int[] total = taken.stripe.pending.get(entry.getKey());
+                if (total == null) {
+                    taken.stripe.pending.put(entry.getKey(), entry.getValue());
+                    pendingProducts.incrementAndGet();
+                } else {
+                    total[0] += entry.getValue()[0];
+                    total[1] += entry.getValue()[1];
+                    total[2] += entry.getValue()[2];
+                }
+                taken.stripe.events += entry.getValue()[2];
+                putBack += entry.getValue()[2];
+            }
+        }
+        return putBack;
+    }
+
+    private static long events(Drained taken, Set<Integer> productIDs) {
+        long events = 0;
+        for (Integer productID : productIDs) {
+            int[] total = taken.pending.get(productID);
+            if (total != null) {
+                events += total[2];
+            }
+        }
+        return events;
+    }
+
+    // One lock's worth of pending totals. Guarded by the Stripe itself.
+    private static final class Stripe {
+        private HashMap<Integer, int[]> pending = new HashMap<>();
+        private long oldestNanos;
+        private long events;
+        private boolean closed;
+
+        // Takes everything pending and leaves an empty map behind, or returns null if there is nothing
+        synchronized Drained drain() {
+            if (pending.isEmpty()) {
+                return null;
+            }
+            Drained taken = new Drained(this, pending, oldestNanos, events);
+            pending = new HashMap<>();
+            events = 0;
+            return taken;
+        }
+    }
+
+    private static final class Drained {
+        private final Stripe stripe;
+        private final Map<Integer, int[]> pending;
+        private final long oldestNanos;
+        private final long events;
+
+        private Drained(Stripe stripe, Map<Integer, int[]> pending, long oldestNanos, long events) {
+            this.stripe = stripe;
+            this.pending = pending;
+            this.oldestNanos = oldestNanos;
+            this.events = events;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.northwind.Data;
+
+// Watches the stock write-behind buffer over JMX. The lag values say how stale the database is.
+public interface StockDeltaBufferMXBean {
+    int getPendingProducts();
+
+    long getPendingEvents();
+
+    long getOldestPendingMillis();
+
+    long getLastFlushLagMillis();
+
+    long getMaxFlushLagMillis();
+
+    long getLastFlushMillis();
+
+    long getEvents();
+
+    long getFlushes();
+
+    long getFailedFlushes();
+
+    long getRowsWritten();
+
+    long getQuarantinedDeltas();
+
+    String[] getQuarantined();
+
+    double getCoalescingRatio();
+
+    boolean flush();
+}
@@ -0,0 +1,259 @@
+package com.northwind.Data;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Shares one String object between all rows that hold the same value in a column.
+// The JDBC driver makes a new String for every value of every row, so 10,000 customers from
+// "Germany" are 10,000 copies of "Germany". The mappers pass columns with few distinct values
+// (Country, City, ContactTitle, QuantityPerUnit, ...) through a pool column and keep the first copy:
+//
+//     private static final StringPool.Column COUNTRIES = StringPool.shared().column("Customers.Country");
+//     ...
+//     COUNTRIES.intern(resultSet.getString(country))
+//
+// Each column holds at most maxEntries distinct values. Once it is full, new values are returned as
+// they are (not pooled), so a column with more distinct values than expected can't grow without limit.
+// Pooled values are kept until clear().
+//
+// bytesSaved counts every duplicate that was replaced, estimated from the String layout of a 64-bit
+// JVM with compressed pointers. It is the heap those copies would have taken had they been kept, so
+// it is an upper bound once rows are garbage collected; poolBytes is what the pool itself holds on to.
+public final class StringPool implements StringPoolMXBean {
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    private static final StringPool SHARED = new StringPool(DEFAULT_MAX_ENTRIES);
+
+    // A ConcurrentHashMap node (32 bytes) plus its slot in the table
+    private static final int ENTRY_OVERHEAD = 40;
+
+    private final int maxEntries;
+    private final Map<String, Column> columns = new ConcurrentSkipListMap<>();
+
+    public StringPool(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    // The pool the DAO mappers use
+    public static StringPool shared() {
+        return SHARED;
+    }
+
+    public Column column(String name) {
+        return columns.computeIfAbsent(name, n -> new Column(n, maxEntries));
+    }
+
+    public void registerMBean() {
+        try {
+            ObjectName name = new ObjectName("com.northwind:type=StringPool");
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            }
+        } catch (JMException e) {
+            System.out.println("There was an error publishing the string pool over JMX.");
+            e.printStackTrace();
+        }
+    }
+
+    // One line per column, e.g. "Customers.Country: 21 values, 91000 lookups, 99.9% deduplicated, 4.1 MB saved"
+    @Override
+    public String[] getColumns() {
+        List<String> lines = new ArrayList<>(columns.size());
+        for (Column column : columns.values()) {
+            lines.add(column.toString());
+        }
+        return lines.toArray(new String[0]);
+    }
+
+    @Override
+    public long getLookups() {
+        long lookups = 0;
+        for (Column column : columns.values()) {
+            lookups += column.getLookups();
+        }
+        return lookups;
+    }
+
+    @Override
+    public long getHits() {
+        long hits = 0;
+        for (Column column : columns.values()) {
+            hits += column.getHits();
+        }
+        return hits;
+    }
+
+    // Share of all looked up values that were replaced by a pooled copy
+    @Override
+    public double getDedupRatio() {
+        long lookups = getLookups();
+        return lookups == 0 ? 0 : (double) getHits() / lookups;
+    }
+
+    @Override
+    public long getBytesSaved() {
+        long saved = 0;
+        for (Column column : columns.values()) {
+            saved += column.getBytesSaved();
+        }
+        return saved;
+    }
+
+    @Override
+    public long getPoolBytes() {
+        long bytes = 0;
+        for (Column column : columns.values()) {
+            bytes += column.getPoolBytes();
+        }
+        return bytes;
+    }
+
+    // Drops every pooled value and starts the counts again. Columns stay usable.
+    @Override
+    public void clear() {
+        for (Column column : columns.values()) {
+            column.clear();
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("StringPool ");
+        text.append(" lookups = ").append(getLookups()).append('\n');
+        text.append(" dedupRatio = ").append(String.format("%.1f%%", getDedupRatio() * 100)).append('\n');
+        text.append(" bytesSaved = ").append(formatBytes(getBytesSaved())).append('\n');
+        text.append(" poolBytes = ").append(formatBytes(getPoolBytes())).append('\n');
+        for (Column column : columns.values()) {
+            text.append("  ").append(column).append('\n');
+        }
+        return text.toString();
+    }
+
+    // Approximate heap taken by a String: 24 byte object + byte[] (16 byte header, 1 byte per char
+    // when every char fits in Latin-1, else 2), both rounded up to 8 bytes
+    static long sizeOf(String value) {
+        int bytesPerChar = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        return 24 + ((16L + (long) value.length() * bytesPerChar + 7) & ~7L);
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes >= 1024 * 1024) {
+            return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+        }
+        if (bytes >= 1024) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        }
+        return bytes + " B";
+    }
+
+    // The pooled values of one column. Safe to use from any number of threads.
+    public static final class Column {
+        private final String name;
+        private final int maxEntries;
+        private final ConcurrentHashMap<String, String> values = new ConcurrentHashMap<>();
+
+        private final LongAdder lookups = new LongAdder();
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder bytesSaved = new LongAdder();
+        private final LongAdder poolBytes = new LongAdder();
+
+        private Column(String name, int maxEntries) {
+            this.name = name;
+            this.maxEntries = maxEntries;
+        }
+
+        // The pooled copy of value (the first one seen); null stays null
+        public String intern(String value) {
+            if (value == null) {
+                return null;
+            }
+            lookups.increment();
+            String pooled = values.get(value);
+            if (pooled == null) {
+                // size() may be a little behind while other threads add, so a full column can end up
+                // a few entries over maxEntries - never more than the number of threads adding at once
+                if (values.size() >= maxEntries) {
+                    rejected.increment();
+                    return value;
+                }
+                pooled = values.putIfAbsent(value, value);
+                if (pooled == null) {
+                    poolBytes.add(sizeOf(value) + ENTRY_OVERHEAD);
+                    return value;
+                }
+            }
+            hits.increment();
+            bytesSaved.add(sizeOf(value));
+            return pooled;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getDistinctValues() {
+            return values.size();
+        }
+
+        public long getLookups() {
+            return lookups.sum();
+        }
+
+        public long getHits() {
+            return hits.sum();
+        }
+
+        // Values that weren't pooled because the column was already full
+        public long getRejected() {
+            return rejected.sum();
+        }
+
+        public double getDedupRatio() {
+            long total = lookups.sum();
+            return total == 0 ? 0 : (double) hits.sum() / total;
+        }
+
+        public long getBytesSaved() {
+            return bytesSaved.sum();
+        }
+
+        public long getPoolBytes() {
+            return poolBytes.sum();
+        }
+
+        void clear() {
+            values.clear();
+            lookups.reset();
+            hits.reset();
+            rejected.reset();
+            bytesSaved.reset();
+            poolBytes.reset();
+        }
+
+        @Override
+        public String toString() {
+            String line = name + ": " + getDistinctValues() + " values, " + getLookups() + " lookups, "
+                    + String.format("%.1f%%", getDedupRatio() * 100) + " deduplicated, "
+                    + formatBytes(getBytesSaved()) + " saved";
+            long full = getRejected();
+            return full == 0 ? line : line + ", " + full + " not pooled (full)";
+        }
+    }
+}
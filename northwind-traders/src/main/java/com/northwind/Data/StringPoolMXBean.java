@@ -0,0 +1,18 @@
+package com.northwind.Data;
+
+// Shows over JMX how much heap the mapper string pool saves, in total and per column.
+public interface StringPoolMXBean {
+    String[] getColumns();
+
+    long getLookups();
+
+    long getHits();
+
+    double getDedupRatio();
+
+    long getBytesSaved();
+
+    long getPoolBytes();
+
+    void clear();
+}
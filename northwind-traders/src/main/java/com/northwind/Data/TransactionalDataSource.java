@@ -0,0 +1,293 @@
+package com.northwind.Data;
+
+import javax.sql.DataSource;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Lets several DAO calls share one connection and one transaction (a "unit of work").
+//
+//     TransactionalDataSource transactions = new TransactionalDataSource(pool);
+//     ProductDao productDao = new ProductDao(transactions);
+//     CustomerDao customerDao = new CustomerDao(transactions);
+//
+//     transactions.inTransaction(() -> {
+//         productDao.reserve(11, 5);
+//         customerDao.update(customer);
+//         return null;
+//     });
+//
+// Outside inTransaction() nothing changes: every DAO call gets its own pooled connection and
+// auto-commits. Inside it, getConnection() on this thread hands out the same connection every time
+// and the DAOs' close()/commit()/setAutoCommit() calls on it are ignored - the unit of work commits
+// once at the end, or rolls everything back. The connection goes back to the pool either way.
+//
+// The DAOs catch and print their SQLExceptions, so a failing statement would otherwise go unnoticed:
+// any statement that fails inside a unit of work (or a DAO calling rollback(), e.g. reserveAll
+// finding a product short) marks the whole unit rollback-only, and inTransaction() then rolls
+// back and throws.
+//
+// The connection belongs to the calling thread only; work handed to other threads (BatchLoader,
+// ProductImporter, ...) runs outside the unit of work. Calling inTransaction() inside another one
+// joins the outer unit of work (its isolation and read-only settings win).
+//
+// Until the commit, what the unit of work reads and writes is visible to it alone. The caching DAOs
+// (CachingProductDao, SnapshotShipperDao, ...) therefore go straight to the database inside one and
+// do their invalidation or reload through afterCommit(), which waits for the commit and is dropped
+// on rollback - so other threads never get served data that was rolled back.
+public class TransactionalDataSource extends DelegatingDataSource {
+    // Leave the connection's isolation level as the pool configured it
+    public static final int DEFAULT_ISOLATION = -1;
+
+    @FunctionalInterface
+    public interface Work<T> {
+        T run() throws SQLException;
+    }
+
+    private final ThreadLocal<UnitOfWork> current = new ThreadLocal<>();
+
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong rollbacks = new AtomicLong();
+
+    public TransactionalDataSource(DataSource delegate) {
+        super(delegate);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        UnitOfWork unitOfWork = current.get();
+        if (unitOfWork == null) {
+            return delegate.getConnection();
+        }
+        return unitOfWork.shared;
+    }
+
+    // True if the calling thread is inside inTransaction()
+    public boolean isInTransaction() {
+        return current.get() != null;
+    }
+
+    // Runs action once the calling thread's unit of work has committed (on this thread, after the
+    // connection went back to the pool), or straight away outside a unit of work.
+    // If the unit of work rolls back the action never runs.
+    public void afterCommit(Runnable action) {
+        UnitOfWork unitOfWork = current.get();
+        if (unitOfWork == null) {
+            action.run();
+        } else {
+            unitOfWork.afterCommit.add(action);
+        }
+    }
+
+    // The TransactionalDataSource dataSource is or wraps (a DAO usually gets it behind bulkheads and
+    // metrics), or null if there is none
+    public static TransactionalDataSource find(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(TransactionalDataSource.class) ? dataSource.unwrap(TransactionalDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    public <T> T inTransaction(Work<T> work) throws SQLException {
+        return inTransaction(DEFAULT_ISOLATION, false, work);
+    }
+
+    // For reports: the driver/database may route read-only transactions differently or skip locking
+    public <T> T readOnly(Work<T> work) throws SQLException {
+        return inTransaction(DEFAULT_ISOLATION, true, work);
+    }
+
+    // isolation is one of the Connection.TRANSACTION_* levels or DEFAULT_ISOLATION
+    public <T> T inTransaction(int isolation, boolean readOnly, Work<T> work) throws SQLException {
+        UnitOfWork outer = current.get();
+        if (outer != null) {
+            return join(outer, work);
+        }
+
+        Connection connection = delegate.getConnection();
+        // Only the settings this unit of work changes are read and put back afterwards
+        // (asking a RoutingDataSource connection for its isolation level would pin it to the primary)
+        boolean autoCommit;
+        int originalIsolation = DEFAULT_ISOLATION;
+        boolean originalReadOnly;
+        try {
+            autoCommit = connection.getAutoCommit();
+            if (isolation != DEFAULT_ISOLATION) {
+                originalIsolation = connection.getTransactionIsolation();
+            }
+            originalReadOnly = connection.isReadOnly();
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+
+        UnitOfWork unitOfWork = new UnitOfWork(connection);
+        T result;
+        try {
+            if (isolation != DEFAULT_ISOLATION) {
+                connection.setTransactionIsolation(isolation);
+            }
+            if (readOnly) {
+                connection.setReadOnly(true);
+            }
+            connection.setAutoCommit(false);
+            current.set(unitOfWork);
+
+            try {
+                result = work.run();
+            } catch (SQLException | RuntimeException | Error e) {
+                rollback(connection, e);
+                throw e;
+            }
+
+            if (unitOfWork.rollbackOnly) {
+                SQLException failed = new SQLException("The unit of work was rolled back: a statement in it failed or a DAO rolled back",
+                        unitOfWork.failure);
+                rollback(connection, failed);
+                throw failed;
+            }
+            try {
+                connection.commit();
+            } catch (SQLException e) {
+                // A commit that failed half way can leave the transaction open on the server
+                rollback(connection, e);
+                throw e;
+            }
+            commits.incrementAndGet();
+
+        } finally {
+            current.remove();
+            restore(connection, autoCommit, originalIsolation, originalReadOnly);
+        }
+        unitOfWork.runAfterCommit();
+        return result;
+    }
+
+    public long getCommits() {
+        return commits.get();
+    }
+
+    public long getRollbacks() {
+        return rollbacks.get();
+    }
+
+    private static <T> T join(UnitOfWork outer, Work<T> work) throws SQLException {
+        try {
+            return work.run();
+        } catch (SQLException | RuntimeException | Error e) {
+            // The outer unit of work can't commit half of what the inner one did
+            outer.markRollbackOnly(e);
+            throw e;
+        }
+    }
+
+    private void rollback(Connection connection, Throwable cause) {
+        rollbacks.incrementAndGet();
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    // Puts the connection back the way the pool handed it out, then returns it
+    private static void restore(Connection connection, boolean autoCommit, int isolation, boolean readOnly) {
+        try {
+            connection.setAutoCommit(autoCommit);
+            if (isolation != DEFAULT_ISOLATION && connection.getTransactionIsolation() != isolation) {
+                connection.setTransactionIsolation(isolation);
+            }
+            if (connection.isReadOnly() != readOnly) {
+                connection.setReadOnly(readOnly);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    // The connection bound to one inTransaction() call, and the proxy the DAOs get instead of it
+    private static final class UnitOfWork {
+        private final Connection shared;
+        private final List<Runnable> afterCommit = new ArrayList<>();
+        private boolean rollbackOnly;
+        private Throwable failure;
+
+        private UnitOfWork(Connection connection) {
+            this.shared = JdbcProxies.wrap(Connection.class, connection, (target, method, args) -> {
+                switch (method.getName()) {
+                    case "close", "commit", "setAutoCommit":
+                        // The unit of work decides when to commit and when to give the connection back
+                        return null;
+                    case "rollback":
+                        if (args == null) {
+                            markRollbackOnly(null);
+                            return null;
+                        }
+                        // rollback(savepoint) only undoes the DAO's own part - let it through
+                        return JdbcProxies.invoke(target, method, args);
+                    case "isClosed":
+                        return false;
+                    default:
+                        break;
+                }
+
+                Object result = JdbcProxies.invoke(target, method, args);
+                if (result instanceof CallableStatement statement) {
+                    return watch(CallableStatement.class, statement);
+                }
+                if (result instanceof PreparedStatement statement) {
+                    return watch(PreparedStatement.class, statement);
+                }
+                if (result instanceof Statement statement) {
+                    return watch(Statement.class, statement);
+                }
+                return result;
+            });
+        }
+
+        // Notices statements that fail, even when the DAO catches the exception
+        private <S extends Statement> S watch(Class<S> type, S statement) {
+            return JdbcProxies.wrap(type, statement, (target, method, args) -> {
+                try {
+                    return JdbcProxies.invoke(target, method, args);
+                } catch (SQLException e) {
+                    if (method.getName().startsWith("execute")) {
+                        markRollbackOnly(e);
+                    }
+                    throw e;
+                }
+            });
+        }
+
+        // The work is committed whatever an action does, so one failing doesn't stop the others
+        private void runAfterCommit() {
+            for (Runnable action : afterCommit) {
+                try {
+                    action.run();
+                } catch (RuntimeException e) {
+                    System.out.println("There was an error running an after-commit action.");
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        private void markRollbackOnly(Throwable cause) {
+            rollbackOnly = true;
+            if (failure == null) {
+                failure = cause;
+            }
+        }
+    }
+}
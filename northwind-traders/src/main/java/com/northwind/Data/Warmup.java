@@ -0,0 +1,300 @@
+package com.northwind.Data;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+// Gets a freshly started application ready before it takes traffic, instead of letting the first
+// requests pay for opening connections, loading the driver, preparing statements and an unwarmed JIT.
+//
+//     Warmup warmup = new Warmup(pool);
+//     warmup.addStatements("ProductDao.find", 200, () -> productDao.find(1));
+//     warmup.addPreload("Shippers", shipperDao::refresh);
+//     warmup.run();
+//     warmup.isReady();   // true from here on
+//
+// run() goes through three steps:
+//  1. pre-fills the pool: opens minIdle connections (initialSize if minIdle isn't set) at the same
+//     time, then returns them, so they sit idle in the pool ready to use
+//  2. runs every addStatements() task its number of times - the DAO's own SQL through the DAO's own
+//     data source, so the driver, the mapping code and the server's statement cache all get used -
+//     and, at the same time, every addPreload() cache load. The calls of a task are spread over as
+//     many threads as the pre-fill opened connections, so each pooled connection gets its share
+//  3. flips isReady()
+//
+// If the pre-fill fails the database isn't reachable: the other steps still run, but isReady() stays
+// false and run() can be called again later. Apart from that steps are independent: one that fails
+// (a cache load returning false, a task throwing) is listed in getSteps() and counted, but doesn't
+// stop the rest or keep the application from becoming ready - the DAOs and caches still work cold.
+// The DAOs swallow their SQL errors, so a statement task counts its failed calls through
+// DaoCallStatus; that needs the DAO's data source to be one of the layers that record them
+// (BulkheadDataSource, RoutingDataSource, ResilientDataSource).
+public class Warmup implements WarmupMXBean {
+    private final BasicDataSource pool;
+    private final List<Task> statements = new ArrayList<>();
+    private final List<Task> preloads = new ArrayList<>();
+    private final List<String> steps = new CopyOnWriteArrayList<>();
+
+    private volatile boolean ready;
+    private volatile long warmupMillis = -1;
+    private volatile long timeToReadyMillis = -1;
+    private volatile int failedSteps;
+
+    public Warmup(BasicDataSource pool) {
+        this.pool = pool;
+    }
+
+    // Runs task iterations times in all (enough calls for the JIT to compile the paths it takes)
+    public void addStatements(String name, int iterations, Runnable task) {
+        if (iterations <= 0) {
+            throw new IllegalArgumentException("iterations must be positive");
+        }
+        statements.add(new Task(name, () -> runCalls(iterations, task), iterations + " calls"));
+    }
+
+    // Loads a cache once; return false if it couldn't be loaded
+    public void addPreload(String name, BooleanSupplier load) {
+        preloads.add(new Task(name, () -> load.getAsBoolean() ? null : "", "preload"));
+    }
+
+    // Runs the warm-up; once it has made the application ready, calling it again does nothing
+    public synchronized void run() {
+        if (ready) {
+            return;
+        }
+        long start = System.nanoTime();
+        steps.clear();
+        boolean connected = prefill();
+        int failures = connected ? 0 : 1;
+
+        List<Task> tasks = new ArrayList<>(statements);
+        tasks.addAll(preloads);
+        if (!tasks.isEmpty()) {
+            ExecutorService workers = newWorkers(tasks.size());
+            try {
+                List<Future<Boolean>> results = new ArrayList<>(tasks.size());
+                for (Task task : tasks) {
+                    results.add(workers.submit(() -> runStep(task)));
+                }
+                for (Future<Boolean> result : results) {
+                    if (!waitFor(result)) {
+                        failures++;
+                    }
+                }
+            } finally {
+                workers.shutdownNow();
+            }
+        }
+
+        failedSteps = failures;
+        warmupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (connected) {
+            timeToReadyMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+            ready = true;
+        }
+    }
+
+    public void registerMBean() {
+        try {
+            ObjectName name = new ObjectName("com.northwind:type=Warmup");
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            }
+        } catch (JMException e) {
+            System.out.println("There was an error publishing the warm-up status over JMX.");
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    // How long run() took; -1 before it finished
+    @Override
+    public long getWarmupMillis() {
+        return warmupMillis;
+    }
+
+    // From JVM start until ready; -1 before then
+    @Override
+    public long getTimeToReadyMillis() {
+        return timeToReadyMillis;
+    }
+
+    @Override
+    public int getFailedSteps() {
+        return failedSteps;
+    }
+
+    // "prefill: 4 connections in 212 ms", "ProductDao.find: 200 calls in 95 ms", ...
+    @Override
+    public String[] getSteps() {
+        return steps.toArray(new String[0]);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("Warmup ");
+        text.append(" ready = ").append(ready).append('\n');
+        text.append(" warmupMillis = ").append(warmupMillis).append('\n');
+        text.append(" timeToReadyMillis = ").append(timeToReadyMillis).append('\n');
+        text.append(" failedSteps = ").append(failedSteps).append('\n');
+        for (String step : steps) {
+            text.append("  ").append(step).append('\n');
+        }
+        return text.toString();
+    }
+
+    // How many connections the pre-fill opens: minIdle, or initialSize if minIdle isn't set
+    private int connections() {
+        int count = pool.getMinIdle() > 0 ? pool.getMinIdle() : pool.getInitialSize();
+        if (pool.getMaxTotal() > 0) {
+            count = Math.min(count, pool.getMaxTotal());
+        }
+        return Math.max(count, 1);
+    }
+
+    // Opens the connections all at once (each one is a network round trip plus login) and gives them back
+    private boolean prefill() {
+        int count = connections();
+
+        long start = System.nanoTime();
+        List<Connection> opened = new ArrayList<>(count);
+        ExecutorService openers = newWorkers(count);
+        SQLException failure = null;
+        try {
+            List<Future<Connection>> connections = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                connections.add(openers.submit(() -> pool.getConnection()));
+            }
+            for (Future<Connection> connection : connections) {
+                try {
+                    opened.add(connection.get());
+                } catch (Exception e) {
+                    if (failure == null) {
+                        failure = e.getCause() instanceof SQLException cause ? cause : new SQLException(e.getCause());
+                    }
+                }
+            }
+        } finally {
+            openers.shutdownNow();
+            for (Connection connection : opened) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    // Back in the pool or discarded by it - either way nothing to do
+                }
+            }
+        }
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (failure != null) {
+            System.out.println("There was an error opening connections during warm-up.");
+            failure.printStackTrace();
+            steps.add("prefill: " + opened.size() + " of " + count + " connections in " + millis + " ms (FAILED: "
+                    + failure.getMessage() + ")");
+            return false;
+        }
+        steps.add("prefill: " + count + " connections in " + millis + " ms");
+        return true;
+    }
+
+    // Runs the calls on connections() threads at once, so they hold (and warm) that many connections.
+    // Returns null if every call worked, otherwise how many failed and the last error.
+    private String runCalls(int iterations, Runnable task) {
+        int callers = Math.min(connections(), iterations);
+        AtomicInteger failed = new AtomicInteger();
+        AtomicReference<String> lastFailure = new AtomicReference<>();
+        ExecutorService threads = newWorkers(callers);
+        try {
+            List<Future<?>> results = new ArrayList<>(callers);
+            for (int caller = 0; caller < callers; caller++) {
+                // The first iterations % callers threads make one call more
+                int calls = iterations / callers + (caller < iterations % callers ? 1 : 0);
+                results.add(threads.submit(() -> {
+                    for (int i = 0; i < calls; i++) {
+                        DaoCallStatus.begin();
+                        task.run();
+                        if (DaoCallStatus.lastCallFailed()) {
+                            failed.incrementAndGet();
+                            lastFailure.set(DaoCallStatus.lastFailure().getMessage());
+                        }
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "interrupted";
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            threads.shutdownNow();
+        }
+        return failed.get() == 0 ? null : failed.get() + " of " + iterations + " calls failed, last: " + lastFailure.get();
+    }
+
+    private boolean runStep(Task task) {
+        long start = System.nanoTime();
+        String problem;
+        try {
+            problem = task.work.run();
+        } catch (RuntimeException e) {
+            problem = e.toString();
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        String line = task.name + ": " + task.description + " in " + millis + " ms";
+        steps.add(problem == null ? line : line + " (FAILED" + (problem.isEmpty() ? ")" : ": " + problem + ")"));
+        return problem == null;
+    }
+
+    private static ExecutorService newWorkers(int threads) {
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "northwind-warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static boolean waitFor(Future<Boolean> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    // One step of the warm-up: returns null if it worked, otherwise what went wrong ("" if there is nothing to add)
+    @FunctionalInterface
+    private interface Work {
+        String run();
+    }
+
+    private record Task(String name, Work work, String description) {
+    }
+}
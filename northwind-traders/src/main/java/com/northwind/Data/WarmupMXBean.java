@@ -0,0 +1,14 @@
+package com.northwind.Data;
+
+// Startup readiness over JMX: a health check can wait for Ready before sending traffic.
+public interface WarmupMXBean {
+    boolean isReady();
+
+    long getWarmupMillis();
+
+    long getTimeToReadyMillis();
+
+    int getFailedSteps();
+
+    String[] getSteps();
+}
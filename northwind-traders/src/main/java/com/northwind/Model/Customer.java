@@ -1,5 +1,11 @@
 package com.northwind.Model;
 
+import com.northwind.Mapping.Column;
+import com.northwind.Mapping.MappedTable;
+
+// The DAOs read Customers rows through CustomerMapper, which MapperProcessor writes from the
+// @Column constructor below. Pooled columns repeat across many customers and share one copy per value.
+@MappedTable(value = "Customers", mapperPackage = "com.northwind.Data")
 public class Customer {
    private String customerID;
    private String companyName;
@@ -13,8 +19,17 @@ public class Customer {
    private String phone;
    private String fax;
 
-    public Customer(String customerID, String companyName, String contactName, String contactTitle, String address,
-                    String city, String region, String postalCode, String country, String phone, String fax) {
+    public Customer(@Column("CustomerID") String customerID,
+                    @Column("CompanyName") String companyName,
+                    @Column("ContactName") String contactName,
+                    @Column(value = "ContactTitle", pooled = true) String contactTitle,
+                    @Column("Address") String address,
+                    @Column(value = "City", pooled = true) String city,
+                    @Column(value = "Region", pooled = true) String region,
+                    @Column(value = "PostalCode", pooled = true) String postalCode,
+                    @Column(value = "Country", pooled = true) String country,
+                    @Column("Phone") String phone,
+                    @Column("Fax") String fax) {
         this.customerID = customerID;
         this.companyName = companyName;
         this.contactName = contactName;
@@ -28,6 +43,11 @@ public class Customer {
         this.fax = fax;
     }
 
+    public Customer(Customer other) {
+        this(other.customerID, other.companyName, other.contactName, other.contactTitle, other.address,
+                other.city, other.region, other.postalCode, other.country, other.phone, other.fax);
+    }
+
     public String getCustomerID() {
         return customerID;
     }
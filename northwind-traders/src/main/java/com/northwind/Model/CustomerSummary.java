@@ -0,0 +1,6 @@
+package com.northwind.Model;
+
+// Just enough of a customer for a list or a drop-down: read by CustomerDao.getSummaries()
+// without loading the other nine columns.
+public record CustomerSummary(String customerID, String companyName) {
+}
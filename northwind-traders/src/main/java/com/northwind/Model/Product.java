@@ -1,5 +1,11 @@
 package com.northwind.Model;
 
+import com.northwind.Mapping.Column;
+import com.northwind.Mapping.MappedTable;
+
+// The DAOs read Products rows through ProductMapper, which MapperProcessor writes from the
+// @Column constructor below.
+@MappedTable(value = "Products", mapperPackage = "com.northwind.Data")
 public class Product {
     private int productID;
     private String productName;
@@ -12,8 +18,16 @@ public class Product {
     private int reorderLevel;
     private int discontinued;
 
-    public Product(int productID, String productName, int supplierID, int categoryID, String quantityPerUnit, double unitPrice,
-                   int unitsInStock, int unitsOnOrder, int reorderLevel, int discontinued) {
+    public Product(@Column("ProductID") int productID,
+                   @Column("ProductName") String productName,
+                   @Column("SupplierID") int supplierID,
+                   @Column("CategoryID") int categoryID,
+                   @Column(value = "QuantityPerUnit", pooled = true) String quantityPerUnit,
+                   @Column("UnitPrice") double unitPrice,
+                   @Column("UnitsInStock") int unitsInStock,
+                   @Column("UnitsOnOrder") int unitsOnOrder,
+                   @Column("ReorderLevel") int reorderLevel,
+                   @Column("Discontinued") int discontinued) {
         this.productID = productID;
         this.productName = productName;
         this.supplierID = supplierID;
@@ -26,6 +40,11 @@ public class Product {
         this.discontinued = discontinued;
     }
 
+    public Product(Product other) {
+        this(other.productID, other.productName, other.supplierID, other.categoryID, other.quantityPerUnit, other.unitPrice,
+                other.unitsInStock, other.unitsOnOrder, other.reorderLevel, other.discontinued);
+    }
+
     public int getProductID() {
         return productID;
     }
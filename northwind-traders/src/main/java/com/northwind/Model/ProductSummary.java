@@ -0,0 +1,6 @@
+package com.northwind.Model;
+
+// Just enough of a product for a price list: read by ProductDao.getSummaries()
+// without loading the other seven columns.
+public record ProductSummary(int productID, String productName, double unitPrice) {
+}
@@ -1,5 +1,11 @@
 package com.northwind.Model;
 
+import com.northwind.Mapping.Column;
+import com.northwind.Mapping.MappedTable;
+
+// The DAOs read Shippers rows through ShipperMapper, which MapperProcessor writes from the
+// @Column constructor below.
+@MappedTable(value = "Shippers", mapperPackage = "com.northwind.Data")
 public class Shipper {
     private int shipperId;
     private String companyName;
@@ -8,7 +14,8 @@ public class Shipper {
     public Shipper() {
     }
 
-    public Shipper(int shipperId, String companyName, String phone) {
+    public Shipper(@Column("ShipperID") int shipperId, @Column("CompanyName") String companyName,
+                   @Column("Phone") String phone) {
         this.shipperId = shipperId;
         this.companyName = companyName;
         this.phone = phone;
@@ -0,0 +1,100 @@
+package com.northwind.Data;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkExporterTest {
+    @TempDir
+    Path directory;
+
+    private TestDatabase database;
+    private BulkExporter exporter;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        database = new TestDatabase();
+        database.execute("""
+                INSERT INTO Products (ProductName, UnitPrice, UnitsInStock) VALUES
+                ('Chai', 18.0000, 39),
+                ('Tiny', 0.0001, 1),
+                ('Big', 123456.7500, 2)
+                """);
+        exporter = new BulkExporter(database.getDataSource());
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        database.close();
+    }
+
+    @Test
+    void decimalsAreWrittenAsPlainNumbers() throws IOException, SQLException {
+        Path csv = directory.resolve("products.csv");
+        Path json = directory.resolve("products.ndjson");
+
+        exporter.exportProducts(csv, ExportFormat.CSV, false);
+        exporter.exportProducts(json, ExportFormat.NDJSON, false);
+
+        List<String> lines = Files.readAllLines(csv);
+        assertEquals("1,Chai,,,,18.0000,39,0,0,0", lines.get(1));
+        assertEquals("2,Tiny,,,,0.0001,1,0,0,0", lines.get(2));
+        assertEquals("3,Big,,,,123456.7500,2,0,0,0", lines.get(3));
+        assertTrue(Files.readAllLines(json).get(1).contains("\"UnitPrice\":0.0001,"));
+    }
+
+    @Test
+    void exportReplacesTheOldFile() throws IOException, SQLException {
+        Path csv = directory.resolve("products.csv");
+        Files.writeString(csv, "old export\n".repeat(1000));
+
+        ExportResult result = exporter.exportProducts(csv, ExportFormat.CSV, false);
+
+        assertEquals(4, Files.readAllLines(csv).size());
+        assertEquals(Files.size(csv), result.getBytesWritten());
+        assertEquals(List.of(csv), filesIn(directory));
+    }
+
+    @Test
+    void failedExportLeavesTheOldFileAndNoTemporaryFile() throws IOException, SQLException {
+        Path csv = directory.resolve("products.csv");
+        Files.writeString(csv, "old export\n");
+        database.execute("DROP TABLE Products");
+
+        assertThrows(SQLException.class, () -> exporter.exportProducts(csv, ExportFormat.CSV, false));
+
+        assertEquals("old export\n", Files.readString(csv));
+        assertEquals(List.of(csv), filesIn(directory));
+    }
+
+    @Test
+    void temporaryFileIsDeletedWhenTheRenameFails() throws IOException {
+        // The rows are all written, then the rename can't replace a non-empty directory
+        Path target = directory.resolve("products.csv");
+        Files.createDirectory(target);
+        Files.writeString(target.resolve("keep.txt"), "keep");
+
+        assertThrows(IOException.class, () -> exporter.exportProducts(target, ExportFormat.CSV, false));
+
+        assertEquals(List.of(target), filesIn(directory));
+        assertEquals("keep", Files.readString(target.resolve("keep.txt")));
+    }
+
+    private static List<Path> filesIn(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.toList();
+        }
+    }
+}
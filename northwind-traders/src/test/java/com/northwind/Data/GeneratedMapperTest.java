@@ -0,0 +1,100 @@
+package com.northwind.Data;
+
+import com.northwind.Model.Customer;
+import com.northwind.Model.Product;
+import com.northwind.Model.Shipper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+// The mappers MapperProcessor writes for Customer, Product and Shipper
+class GeneratedMapperTest {
+    private TestDatabase database;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        database = new TestDatabase();
+        database.execute("""
+                INSERT INTO Customers VALUES
+                ('ALFKI', 'Alfreds Futterkiste', 'Maria Anders', 'Sales Representative', 'Obere Str. 57',
+                 'Berlin', NULL, '12209', 'Germany', '030-0074321', '030-0076545'),
+                ('BLAUS', 'Blauer See Delikatessen', 'Hanna Moos', 'Sales Representative', 'Forsterstr. 57',
+                 'Mannheim', NULL, '68306', 'Germany', '0621-08460', NULL)
+                """);
+        database.execute("""
+                INSERT INTO Products (ProductName, SupplierID, CategoryID, QuantityPerUnit, UnitPrice,
+                                      UnitsInStock, UnitsOnOrder, ReorderLevel, Discontinued)
+                VALUES ('Chai', 1, 1, '10 boxes x 20 bags', 18.00, 39, 0, 10, 0)
+                """);
+        database.execute("INSERT INTO Shippers (CompanyName, Phone) VALUES ('Speedy Express', '(503) 555-9831')");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        database.close();
+    }
+
+    @Test
+    void customerColumnsAreReadByNameInAnyOrder() throws SQLException {
+        List<Customer> customers = query("""
+                SELECT Fax, Phone, Country, PostalCode, Region, City, Address, ContactTitle, ContactName,
+                       CompanyName, CustomerID
+                FROM Customers ORDER BY CustomerID
+                """, new CustomerMapper());
+
+        Customer alfki = customers.get(0);
+        assertEquals("ALFKI", alfki.getCustomerID());
+        assertEquals("Alfreds Futterkiste", alfki.getCompanyName());
+        assertEquals("Maria Anders", alfki.getContactName());
+        assertEquals("Obere Str. 57", alfki.getAddress());
+        assertEquals("Berlin", alfki.getCity());
+        assertNull(alfki.getRegion());
+        assertEquals("12209", alfki.getPostalCode());
+        assertEquals("030-0074321", alfki.getPhone());
+        assertEquals("030-0076545", alfki.getFax());
+        assertNull(customers.get(1).getFax());
+
+        // Pooled columns share one String between rows
+        assertSame(alfki.getCountry(), customers.get(1).getCountry());
+        assertSame(alfki.getContactTitle(), customers.get(1).getContactTitle());
+    }
+
+    @Test
+    void productAndShipperAreMapped() throws SQLException {
+        Product chai = query("SELECT * FROM Products", new ProductMapper()).get(0);
+        assertEquals(1, chai.getProductID());
+        assertEquals("Chai", chai.getProductName());
+        assertEquals("10 boxes x 20 bags", chai.getQuantityPerUnit());
+        assertEquals(18.0, chai.getUnitPrice());
+        assertEquals(39, chai.getUnitsInStock());
+        assertEquals(10, chai.getReorderLevel());
+
+        Shipper shipper = query("SELECT Phone, CompanyName, ShipperID FROM Shippers", new ShipperMapper()).get(0);
+        assertEquals(1, shipper.getShipperId());
+        assertEquals("Speedy Express", shipper.getCompanyName());
+        assertEquals("(503) 555-9831", shipper.getPhone());
+    }
+
+    private <T> List<T> query(String sql, RowMapper<T> mapper) throws SQLException {
+        List<T> rows = new ArrayList<>();
+        try (Connection connection = database.getDataSource().getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                rows.add(mapper.mapRow(resultSet));
+            }
+        }
+        return rows;
+    }
+}
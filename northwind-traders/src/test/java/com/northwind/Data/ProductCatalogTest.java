@@ -0,0 +1,112 @@
+package com.northwind.Data;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProductCatalogTest {
+    private TestDatabase database;
+    private TransactionalDataSource transactions;
+    private ProductCatalog catalog;
+    private ProductDao productDao;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        database = new TestDatabase();
+        database.addProducts(3, 10);
+        transactions = new TransactionalDataSource(database.getDataSource());
+        catalog = new ProductCatalog(transactions);
+        productDao = new ProductDao(transactions);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        database.close();
+    }
+
+    @Test
+    void refreshInAUnitOfWorkWaitsForTheCommit() throws SQLException {
+        assertEquals(10, catalog.snapshot().unitsInStock(0));
+
+        transactions.inTransaction(() -> {
+            productDao.reserve(1, 4);
+            catalog.refresh();
+            // Other threads keep the committed snapshot until the commit
+            assertEquals(10, sharedUnitsInStock());
+            return null;
+        });
+
+        assertEquals(6, catalog.snapshot().unitsInStock(0));
+    }
+
+    @Test
+    void refreshInARolledBackUnitOfWorkNeverRuns() throws SQLException {
+        assertEquals(10, catalog.snapshot().unitsInStock(0));
+
+        assertThrows(IllegalStateException.class, () -> transactions.inTransaction(() -> {
+            productDao.reserve(1, 4);
+            catalog.refresh();
+            throw new IllegalStateException("give up");
+        }));
+
+        assertEquals(10, catalog.snapshot().unitsInStock(0));
+    }
+
+    @Test
+    void snapshotInAUnitOfWorkSeesItsOwnWritesWithoutKeepingThem() throws SQLException {
+        assertEquals(10, catalog.snapshot().unitsInStock(0));
+
+        int seen = transactions.inTransaction(() -> {
+            productDao.reserve(1, 4);
+            return catalog.snapshot().unitsInStock(0);
+        });
+
+        assertEquals(6, seen);
+        // Nothing refreshed it after the commit, so the shared snapshot is still the old one
+        assertEquals(10, catalog.snapshot().unitsInStock(0));
+    }
+
+    @Test
+    void nullCategoryIsLeftOutOfTheCategoryTotals() throws SQLException {
+        database.execute("UPDATE Products SET UnitPrice = 2, CategoryID = 1 WHERE ProductID = 1");
+        database.execute("UPDATE Products SET UnitPrice = 3, CategoryID = NULL WHERE ProductID = 2");
+        database.execute("UPDATE Products SET UnitPrice = 5, CategoryID = 0 WHERE ProductID = 3");
+
+        ProductCatalog.Snapshot products = catalog.snapshot();
+
+        assertEquals(ProductCatalog.NULL_VALUE, products.categoryId(1));
+        assertEquals(Map.of(0, 50.0, 1, 20.0), products.inventoryValueByCategory());
+        assertEquals(100.0, products.totalInventoryValue());
+        assertEquals(0, products.toProduct(1).getCategoryID());
+    }
+
+    @Test
+    void nullReorderLevelIsNeverLowStock() throws SQLException {
+        database.execute("UPDATE Products SET UnitsInStock = 0, ReorderLevel = NULL WHERE ProductID = 1");
+        database.execute("UPDATE Products SET UnitsInStock = 0, ReorderLevel = 0 WHERE ProductID = 2");
+        database.execute("UPDATE Products SET SupplierID = NULL WHERE ProductID = 3");
+
+        ProductCatalog.Snapshot products = catalog.snapshot();
+
+        assertArrayEquals(new int[]{2}, products.lowStockProductIds());
+        assertEquals(ProductCatalog.NULL_VALUE, products.reorderLevel(0));
+        assertEquals(ProductCatalog.NULL_VALUE, products.supplierId(2));
+    }
+
+    // What the catalog serves outside the unit of work (read on another thread)
+    private int sharedUnitsInStock() {
+        try {
+            return CompletableFuture.supplyAsync(() -> catalog.snapshot().unitsInStock(0)).get();
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.northwind.Data;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Many threads fighting over the stock of a few products with reserve() and reserveAll().
+// Every successful reservation is counted on the Java side; afterwards no product may have gone
+// below zero and the units taken out of stock must equal exactly the units successfully reserved.
+class ProductDaoReserveTest {
+    private static final int PRODUCTS = 8;
+    private static final int STOCK = 300;
+    private static final int THREADS = 16;
+    private static final int CALLS_PER_THREAD = 200;
+
+    private TestDatabase database;
+    private ProductDao productDao;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        database = new TestDatabase();
+        database.addProducts(PRODUCTS, STOCK);
+        productDao = new ProductDao(database.getDataSource());
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        database.close();
+    }
+
+    @Test
+    void reserveNeverOversells() throws Exception {
+        AtomicLongArray reserved = new AtomicLongArray(PRODUCTS);
+        AtomicInteger refused = new AtomicInteger();
+
+        runConcurrently(random -> {
+            int productId = 1 + random.nextInt(PRODUCTS);
+            int quantity = 1 + random.nextInt(3);
+            if (productDao.reserve(productId, quantity)) {
+                reserved.addAndGet(productId - 1, quantity);
+            } else {
+                refused.incrementAndGet();
+            }
+        });
+
+        assertStockMatches(reserved);
+        // More units were asked for than there were, so some calls must have been turned away
+        assertTrue(refused.get() > 0, "expected some reservations to be refused once stock ran out");
+    }
+
+    @Test
+    void reserveAllNeverOversells() throws Exception {
+        AtomicLongArray reserved = new AtomicLongArray(PRODUCTS);
+
+        runConcurrently(random -> {
+            Map<Integer, Integer> lines = new HashMap<>();
+            while (lines.size() < 3) {
+                lines.put(1 + random.nextInt(PRODUCTS), 1 + random.nextInt(3));
+            }
+            if (productDao.reserveAll(lines)) {
+                lines.forEach((productId, quantity) -> reserved.addAndGet(productId - 1, quantity));
+            }
+        });
+
+        assertStockMatches(reserved);
+    }
+
+    @Test
+    void reserveAndReserveAllTogetherNeverOversell() throws Exception {
+        AtomicLongArray reserved = new AtomicLongArray(PRODUCTS);
+
+        runConcurrently(random -> {
+            if (random.nextBoolean()) {
+                int productId = 1 + random.nextInt(PRODUCTS);
+                int quantity = 1 + random.nextInt(3);
+                if (productDao.reserve(productId, quantity)) {
+                    reserved.addAndGet(productId - 1, quantity);
+                }
+            } else {
+                Map<Integer, Integer> lines = new HashMap<>();
+                while (lines.size() < 2) {
+                    lines.put(1 + random.nextInt(PRODUCTS), 1 + random.nextInt(3));
+                }
+                if (productDao.reserveAll(lines)) {
+                    lines.forEach((productId, quantity) -> reserved.addAndGet(productId - 1, quantity));
+                }
+            }
+        });
+
+        assertStockMatches(reserved);
+    }
+
+    @Test
+    void reserveAllTakesNothingWhenOneLineIsShort() throws SQLException {
+        Map<Integer, Integer> lines = Map.of(1, 5, 2, STOCK + 1);
+
+        assertFalse(productDao.reserveAll(lines));
+        assertEquals(List.of(STOCK, STOCK), List.of(unitsInStock(1), unitsInStock(2)));
+    }
+
+    private interface Call {
+        void run(ThreadLocalRandom random);
+    }
+
+    // THREADS threads, released together, each making CALLS_PER_THREAD calls
+    private void runConcurrently(Call call) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < CALLS_PER_THREAD; i++) {
+                        call.run(ThreadLocalRandom.current());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void assertStockMatches(AtomicLongArray reserved) throws SQLException {
+        long unitsSold = 0;
+        long unitsReserved = 0;
+        for (int productId = 1; productId <= PRODUCTS; productId++) {
+            int left = unitsInStock(productId);
+            assertTrue(left >= 0, "product " + productId + " went negative: " + left);
+            assertEquals(STOCK - reserved.get(productId - 1), left,
+                    "product " + productId + " lost or oversold stock");
+            unitsSold += STOCK - left;
+            unitsReserved += reserved.get(productId - 1);
+        }
+        assertEquals(unitsReserved, unitsSold);
+    }
+
+    private int unitsInStock(int productId) throws SQLException {
+        try (Connection connection = database.getDataSource().getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT UnitsInStock FROM Products WHERE ProductID = ?")) {
+            statement.setInt(1, productId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                assertTrue(resultSet.next(), "product " + productId + " is missing");
+                return resultSet.getInt(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.northwind.Data;
+
+import com.northwind.Model.Shipper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// A primary and two replicas, each its own H2 database. Nothing replicates between them, so every
+// read shows where it was sent: shipper 1 is "Primary" on the primary and "Replica" on the replicas,
+// and a shipper added through the router only exists on the primary.
+class RoutingDataSourceTest {
+    private TestDatabase primary;
+    private TestDatabase replica1;
+    private TestDatabase replica2;
+    private RoutingDataSource router;
+    private ShipperDao shipperDao;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = new TestDatabase();
+        replica1 = new TestDatabase();
+        replica2 = new TestDatabase();
+        primary.execute("INSERT INTO Shippers (CompanyName) VALUES ('Primary')");
+        replica1.execute("INSERT INTO Shippers (CompanyName) VALUES ('Replica')");
+        replica2.execute("INSERT INTO Shippers (CompanyName) VALUES ('Replica')");
+
+        router = new RoutingDataSource(primary.getDataSource(), ReplicaSelection.ROUND_ROBIN);
+        router.addReplica("replica1", replica1.getDataSource());
+        router.addReplica("replica2", replica2.getDataSource());
+        // H2 has no SHOW REPLICA STATUS; the replicas are never behind
+        router.setLagCheck(connection -> 0);
+        shipperDao = new ShipperDao(router);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        router.close();
+        primary.close();
+        replica1.close();
+        replica2.close();
+    }
+
+    @Test
+    void readsGoToTheReplicasInTurn() {
+        for (int i = 0; i < 4; i++) {
+            assertEquals("Replica", shipperDao.find(1).getCompanyName());
+        }
+        assertEquals(4, router.getReplicaReads());
+        assertEquals(0, router.getPrimaryReads());
+    }
+
+    @Test
+    void writesGoToThePrimaryAndAreReadBackFromIt() {
+        Shipper added = shipperDao.add(new Shipper(0, "Speedy Express", "(503) 555-9831"));
+
+        Shipper found = shipperDao.find(added.getShipperId());
+        assertNotNull(found, "the thread that wrote must read its own write");
+        assertEquals("Speedy Express", found.getCompanyName());
+        assertEquals(1, router.getPrimaryWrites());
+        assertEquals(1, router.getPrimaryReads());
+        assertEquals(0, router.getReplicaReads());
+    }
+
+    @Test
+    void otherThreadsStillReadFromTheReplicas() throws Exception {
+        shipperDao.add(new Shipper(0, "Speedy Express", "(503) 555-9831"));
+
+        String seen = CompletableFuture.supplyAsync(() -> shipperDao.find(1).getCompanyName()).get();
+        assertEquals("Replica", seen);
+    }
+
+    @Test
+    void readsGoBackToTheReplicasOnceTheStickyWindowIsOver() throws InterruptedException {
+        router.setStickyWindow(Duration.ofMillis(100));
+        shipperDao.add(new Shipper(0, "Speedy Express", "(503) 555-9831"));
+        Thread.sleep(200);
+
+        assertEquals("Replica", shipperDao.find(1).getCompanyName());
+    }
+
+    @Test
+    void stickyWindowStartsWhenALongTransactionCommits() throws Exception {
+        router.setStickyWindow(Duration.ofMillis(300));
+        int shipperId;
+        try (Connection connection = router.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO Shippers (CompanyName) VALUES ('United Package')", Statement.RETURN_GENERATED_KEYS)) {
+                statement.executeUpdate();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    keys.next();
+                    shipperId = keys.getInt(1);
+                }
+            }
+            // Longer than the window: counting from the INSERT it would be over before the commit
+            Thread.sleep(500);
+            connection.commit();
+        }
+
+        Shipper found = shipperDao.find(shipperId);
+        assertNotNull(found, "a read straight after the commit must see the committed row");
+        assertEquals("United Package", found.getCompanyName());
+    }
+
+    @Test
+    void stickyWindowStartsWhenAUnitOfWorkCommits() throws Exception {
+        router.setStickyWindow(Duration.ofMillis(300));
+        TransactionalDataSource transactions = new TransactionalDataSource(router);
+        ShipperDao transactionalDao = new ShipperDao(transactions);
+
+        Shipper added = transactions.inTransaction(() -> {
+            Shipper shipper = transactionalDao.add(new Shipper(0, "Federal Shipping", "(503) 555-9931"));
+            pause(500);
+            return shipper;
+        });
+
+        assertNotNull(transactionalDao.find(added.getShipperId()));
+    }
+
+    @Test
+    void readsInATransactionStayOnThePrimary() throws SQLException {
+        TransactionalDataSource transactions = new TransactionalDataSource(router);
+        ShipperDao transactionalDao = new ShipperDao(transactions);
+
+        String seen = transactions.inTransaction(() -> transactionalDao.find(1).getCompanyName());
+        assertEquals("Primary", seen);
+        assertEquals(0, router.getReplicaReads());
+    }
+
+    @Test
+    void unreachableReplicaIsTakenOutOfRotation() throws SQLException {
+        replica1.getDataSource().close();
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals("Replica", shipperDao.find(1).getCompanyName());
+        }
+        assertEquals(List.of("replica2"), router.getHealthyReplicas());
+        assertEquals(0, router.getFallbacks());
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWithNoHealthyReplica() throws SQLException {
+        replica1.getDataSource().close();
+        replica2.getDataSource().close();
+
+        assertEquals("Primary", shipperDao.find(1).getCompanyName());
+        assertEquals(1, router.getFallbacks());
+        assertNull(shipperDao.find(99));
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
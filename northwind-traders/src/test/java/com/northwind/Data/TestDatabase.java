@@ -0,0 +1,106 @@
+package com.northwind.Data;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// An in-memory H2 database in MySQL mode with empty Northwind-shaped Customers, Products and Shippers
+// tables, for the tests. Every instance is a separate database.
+final class TestDatabase implements AutoCloseable {
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private final BasicDataSource dataSource;
+
+    TestDatabase() throws SQLException {
+        // The DAOs use plain MySQL SQL and some name the northwind schema, so every connection
+        // starts inside one. LOCK_TIMEOUT is raised so contended rows wait rather than fail.
+        String url = "jdbc:h2:mem:test" + DATABASES.incrementAndGet()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000"
+                + ";INIT=CREATE SCHEMA IF NOT EXISTS northwind\\;SET SCHEMA northwind";
+
+        dataSource = new BasicDataSource();
+        dataSource.setUrl(url);
+        dataSource.setUsername("sa");
+        dataSource.setPassword("");
+        dataSource.setMaxTotal(64);
+
+        execute("""
+                CREATE TABLE Customers (
+                    CustomerID VARCHAR(12) NOT NULL PRIMARY KEY,
+                    CompanyName VARCHAR(40) NOT NULL,
+                    ContactName VARCHAR(30),
+                    ContactTitle VARCHAR(30),
+                    Address VARCHAR(60),
+                    City VARCHAR(15),
+                    Region VARCHAR(15),
+                    PostalCode VARCHAR(10),
+                    Country VARCHAR(15),
+                    Phone VARCHAR(24),
+                    Fax VARCHAR(24)
+                )
+                """);
+        execute("""
+                CREATE TABLE Products (
+                    ProductID INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+                    ProductName VARCHAR(40) NOT NULL,
+                    SupplierID INT,
+                    CategoryID INT,
+                    QuantityPerUnit VARCHAR(20),
+                    UnitPrice DECIMAL(10, 4) DEFAULT 0,
+                    UnitsInStock SMALLINT DEFAULT 0,
+                    UnitsOnOrder SMALLINT DEFAULT 0,
+                    ReorderLevel SMALLINT DEFAULT 0,
+                    Discontinued TINYINT NOT NULL DEFAULT 0
+                )
+                """);
+        execute("""
+                CREATE TABLE Shippers (
+                    ShipperID INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+                    CompanyName VARCHAR(40) NOT NULL,
+                    Phone VARCHAR(24)
+                )
+                """);
+    }
+
+    BasicDataSource getDataSource() {
+        return dataSource;
+    }
+
+    void execute(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    // Products 1..count, each with unitsInStock in stock
+    void addProducts(int count, int unitsInStock) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "INSERT INTO Products (ProductName, UnitsInStock) VALUES (?, ?)")) {
+            for (int i = 1; i <= count; i++) {
+                statement.setString(1, "Product " + i);
+                statement.setInt(2, unitsInStock);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        // A test may have closed the pool itself to make the database unreachable
+        if (dataSource.isClosed()) {
+            return;
+        }
+        try {
+            execute("SHUTDOWN");
+        } finally {
+            dataSource.close();
+        }
+    }
+}